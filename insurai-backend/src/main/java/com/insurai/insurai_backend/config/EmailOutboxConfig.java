@@ -0,0 +1,26 @@
+package com.insurai.insurai_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class EmailOutboxConfig {
+
+    /**
+     * SMTP delivery workers for the email outbox. The poller never hands out more
+     * rows than there are idle workers, so the queue only absorbs hand-off jitter.
+     */
+    @Bean(name = "emailDeliveryExecutor")
+    public ThreadPoolTaskExecutor emailDeliveryExecutor(@Value("${email.outbox.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("email-delivery-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -69,7 +69,8 @@ public class EmployeeJwtAuthenticationFilter extends OncePerRequestFilter {
 	    // Existing paths
 	    return !path.startsWith("/employee") 
 	        && !path.startsWith("/claims") 
-	        && !path.startsWith("/notifications/user");
+	        && !path.startsWith("/notifications/user")
+	        && !path.startsWith("/notifications/me");
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.insurai.insurai_backend.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class FraudScoringConfig {
+
+    /**
+     * Worker pool for asynchronous fraud scoring. The queue is bounded; once it is
+     * full the submitting thread scores the claim itself, which throttles intake
+     * instead of dropping work.
+     */
+    @Bean(name = "fraudScoringExecutor")
+    public ThreadPoolTaskExecutor fraudScoringExecutor(@Value("${fraud.async.workers:2}") int workers,
+                                                       @Value("${fraud.async.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("fraud-scoring-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
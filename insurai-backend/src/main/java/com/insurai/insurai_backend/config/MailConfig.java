@@ -0,0 +1,46 @@
+package com.insurai.insurai_backend.config;
+
+import java.util.Properties;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.insurai.insurai_backend.service.mail.PooledMailSender;
+
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+
+    /**
+     * The application's {@code JavaMailSender}: configured from {@code spring.mail.*} like
+     * Spring Boot's default one, but reusing SMTP connections across messages. Size the
+     * pool to the email outbox workers so each worker keeps its own session.
+     */
+    @Bean(destroyMethod = "close")
+    public PooledMailSender mailSender(MailProperties properties,
+                                       @Value("${mail.pool.max-connections:4}") int maxConnections,
+                                       @Value("${mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                                       @Value("${mail.pool.idle-timeout-ms:60000}") long idleTimeoutMs,
+                                       @Value("${mail.pool.max-wait-ms:10000}") long maxWaitMs) {
+        PooledMailSender sender = new PooledMailSender(maxConnections, maxMessagesPerConnection, idleTimeoutMs, maxWaitMs);
+        sender.setHost(properties.getHost());
+        if (properties.getPort() != null) {
+            sender.setPort(properties.getPort());
+        }
+        sender.setUsername(properties.getUsername());
+        sender.setPassword(properties.getPassword());
+        sender.setProtocol(properties.getProtocol());
+        if (properties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(properties.getDefaultEncoding().name());
+        }
+        if (!properties.getProperties().isEmpty()) {
+            Properties javaMailProperties = new Properties();
+            javaMailProperties.putAll(properties.getProperties());
+            sender.setJavaMailProperties(javaMailProperties);
+        }
+        return sender;
+    }
+}
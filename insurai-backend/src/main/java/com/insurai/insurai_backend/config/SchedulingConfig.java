@@ -0,0 +1,12 @@
+package com.insurai.insurai_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on {@code @Scheduled} jobs (claim statistics reconciliation, ...).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
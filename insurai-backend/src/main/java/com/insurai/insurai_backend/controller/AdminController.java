@@ -1,30 +1,54 @@
 package com.insurai.insurai_backend.controller;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.insurai.insurai_backend.config.JwtUtil;
+import com.insurai.insurai_backend.dto.ClaimFilter;
+import com.insurai.insurai_backend.dto.ClaimRow;
+import com.insurai.insurai_backend.dto.CursorPage;
 import com.insurai.insurai_backend.model.AuditLog;
+import com.insurai.insurai_backend.model.BatchClaimRequest;
 import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.model.Hr;
+import com.insurai.insurai_backend.model.HrRoutingRequest;
 import com.insurai.insurai_backend.model.LoginRequest;
 import com.insurai.insurai_backend.model.RegisterRequest;
 import com.insurai.insurai_backend.model.UpdateStatusRequest;
 import com.insurai.insurai_backend.service.AdminService;
 import com.insurai.insurai_backend.service.AuditLogService;
+import com.insurai.insurai_backend.service.ClaimBatchService;
+import com.insurai.insurai_backend.service.ClaimExportService;
 import com.insurai.insurai_backend.service.ClaimService;
+import com.insurai.insurai_backend.service.ClaimStatsService;
+import com.insurai.insurai_backend.service.EmailOutboxService;
+import com.insurai.insurai_backend.service.FraudService;
+import com.insurai.insurai_backend.service.HrLoadTracker;
 import com.insurai.insurai_backend.service.PolicyService;
 import com.insurai.insurai_backend.service.UserManagementService;
+import com.insurai.insurai_backend.service.fraud.FraudRescanService;
+import com.insurai.insurai_backend.service.fraud.FraudRingIndex;
+import com.insurai.insurai_backend.service.mail.PooledMailSender;
+import com.insurai.insurai_backend.service.search.ClaimSearchIndex;
 
 @RestController
 @RequestMapping("/admin")
@@ -48,6 +72,36 @@ public class AdminController {
     @Autowired
     private UserManagementService userManagementService;
 
+    @Autowired
+    private FraudRescanService fraudRescanService;
+
+    @Autowired
+    private FraudService fraudService;
+
+    @Autowired
+    private FraudRingIndex fraudRingIndex;
+
+    @Autowired
+    private HrLoadTracker hrLoadTracker;
+
+    @Autowired
+    private ClaimExportService claimExportService;
+
+    @Autowired
+    private ClaimBatchService claimBatchService;
+
+    @Autowired
+    private ClaimSearchIndex claimSearchIndex;
+
+    @Autowired
+    private ClaimStatsService claimStatsService;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private PooledMailSender mailSender;
+
     // -------------------- Admin Login --------------------
     @PostMapping("/login")
     public ResponseEntity<?> adminLogin(@RequestBody LoginRequest loginRequest) {
@@ -104,9 +158,9 @@ public class AdminController {
                 return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
             }
 
-            List<Claim> claims = claimService.getAllClaims(); // Make sure this method exists in ClaimService
+            List<ClaimRow> claims = claimService.getClaimRows(new ClaimFilter(null, null, null, null, null));
             List<ClaimDTO> dtos = claims.stream()
-                    .map(ClaimDTO::new)
+                    .map(c -> new ClaimDTO(c, fraudRingIndex.clusterOf(c.getId())))
                     .collect(Collectors.toList());
 
             return ResponseEntity.ok(dtos);
@@ -115,6 +169,186 @@ public class AdminController {
         }
     }
 
+    // -------------------- Page through All Claims --------------------
+    @GetMapping("/claims/page")
+    public ResponseEntity<?> getClaimsPage(
+            @RequestHeader(value = "Authorization") String authHeader,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Boolean fraud,
+            @RequestParam(required = false) Long policyId,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) Long hrId,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            if (!isAdminJwt(authHeader)) {
+                return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+            }
+
+            CursorPage<ClaimDTO> page = claimService
+                    .getClaimPage(new ClaimFilter(employeeId, hrId, status, fraud, policyId), cursor, size, includeTotal)
+                    .map(c -> new ClaimDTO(c, fraudRingIndex.clusterOf(c.getId())));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching claims: " + e.getMessage());
+        }
+    }
+
+    // -------------------- Claim Statistics (in-memory counters) --------------------
+    @GetMapping("/claims/stats")
+    public ResponseEntity<?> getClaimStats(@RequestHeader(value = "Authorization") String authHeader) {
+        if (!isAdminJwt(authHeader)) {
+            return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+        }
+        return ResponseEntity.ok(claimStatsService.stats());
+    }
+
+    // -------------------- Search Claims (full text) --------------------
+    @GetMapping("/claims/search")
+    public ResponseEntity<?> searchClaims(
+            @RequestHeader(value = "Authorization") String authHeader,
+            @RequestParam String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long hrId,
+            @RequestParam(defaultValue = "20") int size) {
+        if (!isAdminJwt(authHeader)) {
+            return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+        }
+
+        ClaimService.ClaimSearchPage page = claimService.searchClaims(q, status, hrId, size);
+        List<ClaimDTO> claims = page.rows().stream()
+                .map(c -> new ClaimDTO(c, fraudRingIndex.clusterOf(c.getId())))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(Map.of(
+                "claims", claims,
+                "totalMatches", page.totalMatches(),
+                "indexReady", page.indexReady()
+        ));
+    }
+
+    @GetMapping("/claims/search/stats")
+    public ResponseEntity<?> getSearchIndexStats(@RequestHeader(value = "Authorization") String authHeader) {
+        if (!isAdminJwt(authHeader)) {
+            return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+        }
+        return ResponseEntity.ok(claimSearchIndex.stats());
+    }
+
+    @PostMapping("/claims/search/rebuild")
+    public ResponseEntity<?> rebuildSearchIndex(@RequestHeader(value = "Authorization") String authHeader) {
+        if (!isAdminJwt(authHeader)) {
+            return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+        }
+        claimSearchIndex.rebuild();
+        return ResponseEntity.accepted().body(claimSearchIndex.stats());
+    }
+
+    // -------------------- Export Claims (streamed CSV / NDJSON) --------------------
+    @GetMapping("/claims/export")
+    public ResponseEntity<?> exportClaims(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status) {
+        if (!isAdminJwt(authHeader)) {
+            return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+        }
+
+        ClaimExportService.Format exportFormat;
+        try {
+            exportFormat = ClaimExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body("Unsupported export format: " + format + " (use csv or ndjson)");
+        }
+
+        String email = jwtUtil.extractEmail(authHeader.substring(7).trim());
+        auditLogService.logAction(email, adminService.getAdminName(email), "ADMIN", "EXPORT_CLAIMS",
+                "Exported claims as " + exportFormat + " (from=" + from + ", to=" + to + ", status=" + status + ")");
+
+        String fileName = "claims." + (exportFormat == ClaimExportService.Format.CSV ? "csv" : "ndjson") + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == ClaimExportService.Format.CSV ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson");
+
+        StreamingResponseBody body = out -> claimExportService.export(out, exportFormat, gzip, from, to, status);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    // -------------------- Bulk Claim Ingestion --------------------
+    @PostMapping("/claims/batch")
+    public ResponseEntity<?> ingestClaims(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody List<BatchClaimRequest> claims) {
+        if (!isAdminJwt(authHeader)) {
+            return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+        }
+
+        ClaimBatchService.BatchResult result;
+        try {
+            result = claimBatchService.ingest(claims);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+
+        String email = jwtUtil.extractEmail(authHeader.substring(7).trim());
+        auditLogService.logAction(email, adminService.getAdminName(email), "ADMIN", "BATCH_CREATE_CLAIMS",
+                "Ingested claim batch: " + result.created() + " created, " + result.rejected() + " rejected of " + result.received());
+
+        return ResponseEntity.ok(result);
+    }
+
+    // -------------------- Email Outbox --------------------
+    @GetMapping("/email-outbox/stats")
+    public ResponseEntity<?> getEmailOutboxStats(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (!isAdminJwt(authHeader)) {
+            return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+        }
+        return ResponseEntity.ok(emailOutboxService.stats());
+    }
+
+    @GetMapping("/email-outbox/transport")
+    public ResponseEntity<?> getMailTransportStats(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (!isAdminJwt(authHeader)) {
+            return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+        }
+        return ResponseEntity.ok(mailSender.stats());
+    }
+
+    @GetMapping("/email-outbox/dead")
+    public ResponseEntity<?> getDeadEmails(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (!isAdminJwt(authHeader)) {
+            return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+        }
+        return ResponseEntity.ok(emailOutboxService.deadLetters(Math.max(1, Math.min(limit, 500))));
+    }
+
+    @PostMapping("/email-outbox/{id}/retry")
+    public ResponseEntity<?> retryDeadEmail(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @PathVariable Long id) {
+        if (!isAdminJwt(authHeader)) {
+            return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+        }
+        if (!emailOutboxService.retry(id)) {
+            return ResponseEntity.status(404).body("No dead email with id " + id);
+        }
+
+        String email = jwtUtil.extractEmail(authHeader.substring(7).trim());
+        auditLogService.logAction(email, adminService.getAdminName(email), "ADMIN", "EMAIL_RETRY",
+                "Requeued dead email #" + id);
+        return ResponseEntity.ok("Email #" + id + " queued for delivery");
+    }
+
     // -------------------- JWT Validation Helper --------------------
     private boolean isAdminJwt(String authHeader) {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
@@ -133,13 +367,10 @@ public ResponseEntity<?> getFraudClaimsAdmin(@RequestHeader(value = "Authorizati
             return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
         }
 
-        List<Claim> claims = claimService.getAllClaims()
-                .stream()
-                .filter(Claim::isFraud) // only fraud-flagged
-                .collect(Collectors.toList());
+        List<ClaimRow> claims = claimService.getClaimRows(new ClaimFilter(null, null, null, true, null)); // only fraud-flagged
 
         List<ClaimDTO> dtos = claims.stream()
-                .map(ClaimDTO::new)
+                .map(c -> new ClaimDTO(c, fraudRingIndex.clusterOf(c.getId())))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(dtos);
@@ -148,6 +379,84 @@ public ResponseEntity<?> getFraudClaimsAdmin(@RequestHeader(value = "Authorizati
     }
 }
 
+// ================= Re-score all claims with the current fraud rules =================
+@PostMapping("/fraud/rescan")
+public ResponseEntity<?> startFraudRescan(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+    if (!isAdminJwt(authHeader)) {
+        return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+    }
+
+    try {
+        String email = jwtUtil.extractEmail(authHeader.substring(7).trim());
+        fraudRescanService.startRescan(email);
+
+        auditLogService.logAction(email, adminService.getAdminName(email), "ADMIN",
+                "FRAUD_RESCAN", "Started fraud re-scan of all claims");
+
+        return ResponseEntity.accepted().body(fraudRescanService.getStatus());
+    } catch (IllegalStateException e) {
+        return ResponseEntity.status(409).body(e.getMessage());
+    } catch (Exception e) {
+        return ResponseEntity.status(500).body("Error starting fraud re-scan: " + e.getMessage());
+    }
+}
+
+// ================= Fraud re-scan progress =================
+@GetMapping("/fraud/rescan/status")
+public ResponseEntity<?> getFraudRescanStatus(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+    if (!isAdminJwt(authHeader)) {
+        return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+    }
+
+    FraudRescanService.RescanStatus status = fraudRescanService.getStatus();
+    if (status == null) {
+        return ResponseEntity.status(404).body("No fraud re-scan has been run yet");
+    }
+    return ResponseEntity.ok(status);
+}
+
+// ================= Per-rule fraud hit counts and latency =================
+@GetMapping("/fraud/rules/stats")
+public ResponseEntity<?> getFraudRuleStats(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+    if (!isAdminJwt(authHeader)) {
+        return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+    }
+    return ResponseEntity.ok(fraudService.getRuleStats());
+}
+
+// ================= HR claim routing settings =================
+@PutMapping("/hr/{hrId}/routing")
+public ResponseEntity<?> updateHrRouting(
+        @RequestHeader(value = "Authorization", required = false) String authHeader,
+        @PathVariable Long hrId,
+        @RequestBody HrRoutingRequest request) {
+    if (!isAdminJwt(authHeader)) {
+        return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+    }
+
+    try {
+        Hr hr = adminService.updateHrRouting(hrId, request);
+
+        String email = jwtUtil.extractEmail(authHeader.substring(7).trim());
+        auditLogService.logAction(email, adminService.getAdminName(email), "ADMIN", "HR_ROUTING_UPDATE",
+                "Updated routing for HR ID: " + hrId + " (weight=" + hr.getRoutingWeight()
+                        + ", maxPending=" + hr.getMaxPendingClaims() + ", policyTypes=" + hr.getPolicyTypes() + ")");
+
+        return ResponseEntity.ok("HR routing updated successfully");
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.status(400).body(e.getMessage());
+    }
+}
+
+// ================= Claim queue depth per HR =================
+@GetMapping("/hr/routing/metrics")
+public ResponseEntity<?> getHrRoutingMetrics(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+    if (!isAdminJwt(authHeader)) {
+        return ResponseEntity.status(403).body("Access denied. Please login as Admin.");
+    }
+    return ResponseEntity.ok(hrLoadTracker.metrics());
+}
+
 // ================= Get All Audit Logs =================
 @GetMapping("/audit/logs")
 public ResponseEntity<?> getAllAuditLogs(
@@ -226,6 +535,10 @@ public static class ClaimDTO {
 
     private boolean fraudFlag;           // ✅ Flag indicator
     private String fraudReason;          // ✅ Fraud reason details
+    private String scoringState;         // Scoring / Scored while fraud checks run async
+    private Long fraudClusterId;         // Fraud ring (smallest claim id in the cluster)
+    private int fraudClusterSize;        // Claims linked to this one, itself included
+    private int fraudClusterEmployees;   // Distinct employees among those claims
 
     public ClaimDTO(Claim claim) {
         this.id = claim.getId();
@@ -258,6 +571,44 @@ public static class ClaimDTO {
         this.documents = claim.getDocuments();
         this.fraudFlag = claim.isFraud();
         this.fraudReason = claim.getFraudReason();
+        this.scoringState = claim.getScoringState();
+    }
+
+    public ClaimDTO(Claim claim, FraudRingIndex.Cluster cluster) {
+        this(claim);
+        setCluster(cluster);
+    }
+
+    // From a list projection row (no lazy loading)
+    public ClaimDTO(ClaimRow row, FraudRingIndex.Cluster cluster) {
+        this.id = row.getId();
+        this.title = row.getTitle();
+        this.description = row.getDescription();
+        this.amount = row.getAmount();
+        this.status = row.getStatus();
+        this.remarks = row.getRemarks();
+        this.claimDate = row.getClaimDate();
+        this.createdAt = row.getCreatedAt();
+        this.updatedAt = row.getUpdatedAt();
+        this.employeeId = row.getEmployeeId();
+        this.employeeName = row.getEmployeeName();
+        this.assignedHrId = row.getAssignedHrId();
+        this.assignedHrName = row.getAssignedHrName();
+        this.policyId = row.getPolicyId();
+        this.policyName = row.getPolicyName() != null ? row.getPolicyName() : "N/A";
+        this.documents = row.getDocuments();
+        this.fraudFlag = row.isFraudFlag();
+        this.fraudReason = row.getFraudReason();
+        this.scoringState = row.getScoringState();
+        setCluster(cluster);
+    }
+
+    private void setCluster(FraudRingIndex.Cluster cluster) {
+        if (cluster != null) {
+            this.fraudClusterId = cluster.clusterId();
+            this.fraudClusterSize = cluster.size();
+            this.fraudClusterEmployees = cluster.employees();
+        }
     }
 
     // -------------------- Getters --------------------
@@ -282,6 +633,10 @@ public static class ClaimDTO {
 
     public boolean isFraudFlag() { return fraudFlag; }
     public String getFraudReason() { return fraudReason; }
+    public String getScoringState() { return scoringState; }
+    public Long getFraudClusterId() { return fraudClusterId; }
+    public int getFraudClusterSize() { return fraudClusterSize; }
+    public int getFraudClusterEmployees() { return fraudClusterEmployees; }
 }
 
 
@@ -1,17 +1,26 @@
 package com.insurai.insurai_backend.controller;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -22,6 +31,9 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.insurai.insurai_backend.config.JwtUtil;
+import com.insurai.insurai_backend.dto.ClaimFilter;
+import com.insurai.insurai_backend.dto.ClaimRow;
+import com.insurai.insurai_backend.dto.CursorPage;
 import com.insurai.insurai_backend.model.Claim;
 import com.insurai.insurai_backend.model.Employee;
 import com.insurai.insurai_backend.model.Policy;
@@ -29,6 +41,7 @@ import com.insurai.insurai_backend.repository.EmployeeRepository;
 import com.insurai.insurai_backend.repository.PolicyRepository;
 import com.insurai.insurai_backend.service.AuditLogService;
 import com.insurai.insurai_backend.service.ClaimService;
+import com.insurai.insurai_backend.service.IdempotencyService;
 
 @RestController
 @RequestMapping("/employee/claims")
@@ -49,12 +62,16 @@ public class ClaimController {
    @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     private final String uploadDir = "C:/Users/Krishna Nagiri/InsurAi/insurai-backend/uploads/";
 
 // -------------------- Submit Claim --------------------
 @PostMapping("")
 public ResponseEntity<?> submitClaim(
         @RequestHeader(value = "Authorization", required = false) String authHeader,
+        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
         @RequestParam Long policyId,
         @RequestParam String title,
         @RequestParam String description,
@@ -78,30 +95,34 @@ public ResponseEntity<?> submitClaim(
             return ResponseEntity.status(403).body("Unauthorized: Invalid token");
         }
 
-        Policy policy = policyRepository.findById(policyId)
-                .orElseThrow(() -> new RuntimeException("Policy not found"));
+        // A retried request with the same key gets the first response back; nothing below runs again
+        String requestHash = IdempotencyService.hash(policyId, title, description, amount, date, describeFiles(documents));
+        return idempotencyService.execute("claim-submit", employee.getId(), idempotencyKey, requestHash, () -> {
+            Policy policy = policyRepository.findById(policyId)
+                    .orElseThrow(() -> new RuntimeException("Policy not found"));
 
-        // Handle document uploads safely
-        List<String> documentPaths = (documents != null) ?
-                documents.stream().map(file -> storeFile(file)).collect(Collectors.toList())
-                : List.of();
+            // Handle document uploads safely (path -> content hash)
+            Map<String, String> uploaded = storeFiles(documents);
+            List<String> documentPaths = new ArrayList<>(uploaded.keySet());
 
-        LocalDateTime claimDate = LocalDateTime.parse(date + "T00:00:00");
+            LocalDateTime claimDate = LocalDateTime.parse(date + "T00:00:00");
 
-        Claim claim = new Claim(title, description, amount, claimDate, employee, policy, null, documentPaths);
+            Claim claim = new Claim(title, description, amount, claimDate, employee, policy, null, documentPaths);
+            claim.setDocumentFingerprints(uploaded);
 
-        Claim savedClaim = claimService.submitClaim(claim);
+            Claim savedClaim = claimService.submitClaim(claim);
 
-        // ✅ Audit log for claim submission
-        auditLogService.logAction(
-                employee.getId().toString(),
-                employee.getName(),
-                "EMPLOYEE",
-                "SUBMIT_CLAIM",
-                "Submitted claim for policy ID: " + policyId
-        );
+            // ✅ Audit log for claim submission
+            auditLogService.logAction(
+                    employee.getId().toString(),
+                    employee.getName(),
+                    "EMPLOYEE",
+                    "SUBMIT_CLAIM",
+                    "Submitted claim for policy ID: " + policyId
+            );
 
-        return ResponseEntity.ok(new ClaimDTO(savedClaim));
+            return ResponseEntity.ok(new ClaimDTO(savedClaim));
+        }, this::replayClaim);
 
     } catch (Exception e) {
         return ResponseEntity.status(400).body("Error submitting claim: " + e.getMessage());
@@ -112,6 +133,7 @@ public ResponseEntity<?> submitClaim(
 @PostMapping("/update")
 public ResponseEntity<?> updateClaim(
         @RequestHeader(value = "Authorization", required = false) String authHeader,
+        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
         @RequestParam Long claimId,
         @RequestParam Long policyId,
         @RequestParam String title,
@@ -137,40 +159,45 @@ public ResponseEntity<?> updateClaim(
             return ResponseEntity.status(403).body("Unauthorized: Invalid token");
         }
 
-        Claim claim = claimService.getClaimById(claimId);
-        if (claim == null || !claim.getEmployee().getId().equals(employee.getId())) {
-            return ResponseEntity.status(403).body("Unauthorized: Cannot edit this claim");
-        }
-
-        Policy policy = policyRepository.findById(policyId)
-                .orElseThrow(() -> new RuntimeException("Policy not found"));
-
-        claim.setTitle(title);
-        claim.setDescription(description);
-        claim.setAmount(amount);
-        claim.setClaimDate(LocalDateTime.parse(date + "T00:00:00"));
-        claim.setPolicy(policy);
-
-        if (documents != null && !documents.isEmpty()) {
-            List<String> documentPaths = documents.stream()
-                    .map(file -> storeFile(file))
-                    .collect(Collectors.toList());
-            claim.getDocuments().addAll(documentPaths);
-        }
-
-        Claim updatedClaim = claimService.updateClaim(claim);
-
-        // ✅ Audit log for claim update
-        auditLogService.logAction(
-                employee.getId().toString(),
-                employee.getName(),
-                "EMPLOYEE",
-                "UPDATE_CLAIM",
-                "Updated claim ID: " + claimId + " for policy ID: " + policyId
-        );
-
-        return ResponseEntity.ok(new ClaimDTO(updatedClaim));
-
+        String requestHash = IdempotencyService.hash(claimId, policyId, title, description, amount, date,
+                describeFiles(documents));
+        return idempotencyService.execute("claim-update", employee.getId(), idempotencyKey, requestHash, () -> {
+            Claim claim = claimService.getClaimById(claimId);
+            if (claim == null || !claim.getEmployee().getId().equals(employee.getId())) {
+                return ResponseEntity.status(403).body("Unauthorized: Cannot edit this claim");
+            }
+
+            Policy policy = policyRepository.findById(policyId)
+                    .orElseThrow(() -> new RuntimeException("Policy not found"));
+
+            claim.setTitle(title);
+            claim.setDescription(description);
+            claim.setAmount(amount);
+            claim.setClaimDate(LocalDateTime.parse(date + "T00:00:00"));
+            claim.setPolicy(policy);
+
+            if (documents != null && !documents.isEmpty()) {
+                Map<String, String> uploaded = storeFiles(documents);
+                claim.getDocuments().addAll(uploaded.keySet());
+                claim.setDocumentFingerprints(uploaded);
+            }
+
+            Claim updatedClaim = claimService.updateClaim(claim);
+
+            // ✅ Audit log for claim update
+            auditLogService.logAction(
+                    employee.getId().toString(),
+                    employee.getName(),
+                    "EMPLOYEE",
+                    "UPDATE_CLAIM",
+                    "Updated claim ID: " + claimId + " for policy ID: " + policyId
+            );
+
+            return ResponseEntity.ok(new ClaimDTO(updatedClaim));
+        }, this::replayClaim);
+
+    } catch (ObjectOptimisticLockingFailureException e) {
+        return ResponseEntity.status(409).body("Claim was changed while you were editing it. Reload and try again.");
     } catch (Exception e) {
         return ResponseEntity.status(400).body("Error updating claim: " + e.getMessage());
     }
@@ -199,7 +226,7 @@ public ResponseEntity<?> getEmployeeClaims(
         return ResponseEntity.status(403).body("Invalid token: employee not found");
     }
 
-    List<Claim> claims = claimService.getClaimsByEmployee(employee);
+    List<ClaimRow> claims = claimService.getClaimRows(new ClaimFilter(employee.getId(), null, null, null, null));
     List<ClaimDTO> claimDTOs = claims.stream().map(ClaimDTO::new).collect(Collectors.toList());
 
     // -------------------- Audit Log --------------------
@@ -215,11 +242,49 @@ public ResponseEntity<?> getEmployeeClaims(
 }
 
 
+// -------------------- Page through Employee Claims --------------------
+@GetMapping("/page")
+public ResponseEntity<?> getEmployeeClaimsPage(
+        @RequestHeader(value = "Authorization", required = false) String authHeader,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int size,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) Boolean fraud,
+        @RequestParam(required = false) Long policyId,
+        @RequestParam(defaultValue = "false") boolean includeTotal
+) {
+    if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        return ResponseEntity.status(403).body("Missing or invalid Authorization header");
+    }
+
+    String token = authHeader.substring(7).trim();
+    String email = jwtUtil.extractEmail(token);
+    String role = jwtUtil.extractRole(token);
+
+    if (!"EMPLOYEE".equalsIgnoreCase(role)) {
+        return ResponseEntity.status(403).body("Access denied: Not an employee");
+    }
+
+    Employee employee = employeeRepository.findByEmail(email).orElse(null);
+    if (employee == null) {
+        return ResponseEntity.status(403).body("Invalid token: employee not found");
+    }
+
+    try {
+        CursorPage<ClaimDTO> page = claimService
+                .getClaimPage(new ClaimFilter(employee.getId(), null, status, fraud, policyId), cursor, size, includeTotal)
+                .map(ClaimDTO::new);
+        return ResponseEntity.ok(page);
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.status(400).body(e.getMessage());
+    }
+}
+
     // -------------------- Get All Claims (for admin) --------------------
     @GetMapping("/all")
     public ResponseEntity<?> getAllClaims() {
         try {
-            List<Claim> claims = claimService.getAllClaims();
+            List<ClaimRow> claims = claimService.getClaimRows(new ClaimFilter(null, null, null, null, null));
             List<ClaimDTO> claimDTOs = claims.stream().map(ClaimDTO::new).collect(Collectors.toList());
             return ResponseEntity.ok(claimDTOs);
         } catch (Exception e) {
@@ -227,19 +292,56 @@ public ResponseEntity<?> getEmployeeClaims(
         }
     }
 
+    // -------------------- Helper: Store files, keeping upload order --------------------
+    private Map<String, String> storeFiles(List<MultipartFile> files) {
+        Map<String, String> stored = new LinkedHashMap<>();
+        if (files != null) {
+            for (MultipartFile file : files) {
+                StoredFile f = storeFile(file);
+                stored.put(f.path(), f.sha256());
+            }
+        }
+        return stored;
+    }
+
+    // Names and sizes of the uploads, for the idempotency request hash (contents are not read)
+    private static String describeFiles(List<MultipartFile> files) {
+        if (files == null) return "";
+        StringBuilder description = new StringBuilder();
+        for (MultipartFile file : files) {
+            description.append(file.getOriginalFilename()).append(':').append(file.getSize()).append(';');
+        }
+        return description.toString();
+    }
+
+    // Response of a submit/update whose claim was written but whose response was not stored
+    private ResponseEntity<?> replayClaim(Long claimId) {
+        Claim claim = claimService.getClaimById(claimId);
+        if (claim == null) {
+            return ResponseEntity.status(404).body("Claim not found");
+        }
+        return ResponseEntity.ok(new ClaimDTO(claim));
+    }
+
     // -------------------- Helper: Store file safely --------------------
-    private String storeFile(MultipartFile file) {
+    // The SHA-256 is computed while the upload is copied, so the content is read only once
+    private StoredFile storeFile(MultipartFile file) {
         try {
             String uniqueName = UUID.randomUUID() + "_" + file.getOriginalFilename();
             Path filePath = Paths.get(uploadDir + uniqueName);
             Files.createDirectories(filePath.getParent());
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            return "/uploads/" + uniqueName;
-        } catch (IOException e) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, filePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new StoredFile("/uploads/" + uniqueName, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException | NoSuchAlgorithmException e) {
             throw new RuntimeException("Failed to store file " + file.getOriginalFilename(), e);
         }
     }
 
+    private record StoredFile(String path, String sha256) {}
+
     // -------------------- Claim DTO --------------------
     public static class ClaimDTO {
         private Long id;
@@ -272,6 +374,23 @@ public ResponseEntity<?> getEmployeeClaims(
             this.assignedHrId = (claim.getAssignedHr() != null) ? claim.getAssignedHr().getId() : null;
         }
 
+        // From a list projection row (no lazy loading)
+        public ClaimDTO(ClaimRow row) {
+            this.id = row.getId();
+            this.title = row.getTitle();
+            this.description = row.getDescription();
+            this.amount = row.getAmount();
+            this.status = row.getStatus();
+            this.remarks = row.getRemarks();
+            this.claimDate = row.getClaimDate();
+            this.createdAt = row.getCreatedAt();
+            this.updatedAt = row.getUpdatedAt();
+            this.employeeId = row.getEmployeeId();
+            this.policyId = row.getPolicyId();
+            this.documents = row.getDocuments();
+            this.assignedHrId = row.getAssignedHrId();
+        }
+
         // Getters
         public Long getId() { return id; }
         public String getTitle() { return title; }
@@ -11,19 +11,32 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.insurai.insurai_backend.config.JwtUtil;
+import com.insurai.insurai_backend.dto.ClaimFilter;
+import com.insurai.insurai_backend.dto.ClaimRow;
+import com.insurai.insurai_backend.dto.CursorPage;
+import com.insurai.insurai_backend.exception.ClaimConflictException;
+import com.insurai.insurai_backend.model.BulkDecisionRequest;
 import com.insurai.insurai_backend.model.Claim;
 import com.insurai.insurai_backend.model.Hr;
 import com.insurai.insurai_backend.model.LoginRequest;
+import com.insurai.insurai_backend.model.NotificationMode;
+import com.insurai.insurai_backend.model.NotificationModeRequest;
 import com.insurai.insurai_backend.repository.HrRepository;
 import com.insurai.insurai_backend.service.AuditLogService;
+import com.insurai.insurai_backend.service.ClaimBulkDecisionService;
 import com.insurai.insurai_backend.service.ClaimService;
+import com.insurai.insurai_backend.service.ClaimStatsService;
+import com.insurai.insurai_backend.service.HrDigestService;
 import com.insurai.insurai_backend.service.HrService;
+import com.insurai.insurai_backend.service.fraud.FraudRingIndex;
 
 import lombok.RequiredArgsConstructor;
 
@@ -38,6 +51,10 @@ public class HrController {
     private final JwtUtil jwtUtil;
     private final ClaimService claimService;
     private final AuditLogService auditLogService;
+    private final FraudRingIndex fraudRingIndex;
+    private final ClaimBulkDecisionService claimBulkDecisionService;
+    private final ClaimStatsService claimStatsService;
+    private final HrDigestService hrDigestService;
 
 // ================= HR Login =================
 @PostMapping("/login")
@@ -93,9 +110,9 @@ public ResponseEntity<?> getAssignedClaims(@RequestHeader(value = "Authorization
         Hr hr = hrRepository.findByEmail(hrEmail)
                 .orElseThrow(() -> new RuntimeException("HR not found"));
 
-        List<Claim> claims = claimService.getClaimsByAssignedHr(hr.getId());
+        List<ClaimRow> claims = claimService.getClaimRows(new ClaimFilter(null, hr.getId(), null, null, null));
         List<ClaimDTO> dtos = claims.stream()
-                .map(ClaimDTO::new)
+                .map(c -> new ClaimDTO(c, fraudRingIndex.clusterOf(c.getId())))
                 .collect(Collectors.toList());
 
         // -------------------- Audit log --------------------
@@ -113,6 +130,135 @@ public ResponseEntity<?> getAssignedClaims(@RequestHeader(value = "Authorization
     }
 }
 
+// ================= Page through Claims Assigned to Logged-in HR =================
+@GetMapping("/claims/page")
+public ResponseEntity<?> getAssignedClaimsPage(
+        @RequestHeader(value = "Authorization") String authHeader,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int size,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) Boolean fraud,
+        @RequestParam(required = false) Long policyId,
+        @RequestParam(defaultValue = "false") boolean includeTotal) {
+    try {
+        validateHrToken(authHeader);
+        Hr hr = getHrFromToken(authHeader);
+
+        CursorPage<ClaimDTO> page = claimService
+                .getClaimPage(new ClaimFilter(null, hr.getId(), status, fraud, policyId), cursor, size, includeTotal)
+                .map(c -> new ClaimDTO(c, fraudRingIndex.clusterOf(c.getId())));
+        return ResponseEntity.ok(page);
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.status(400).body(e.getMessage());
+    } catch (Exception e) {
+        return ResponseEntity.status(403).body("Error fetching claims: " + e.getMessage());
+    }
+}
+
+// ================= Email Delivery Mode for Logged-in HR =================
+@GetMapping("/notification-mode")
+public ResponseEntity<?> getNotificationMode(@RequestHeader(value = "Authorization") String authHeader) {
+    try {
+        validateHrToken(authHeader);
+        Hr hr = getHrFromToken(authHeader);
+        HrDigestService.DigestStatus digest = hrDigestService.status(hr.getId());
+        return ResponseEntity.ok(Map.of(
+                "mode", hr.getNotificationMode() != null ? hr.getNotificationMode() : NotificationMode.IMMEDIATE,
+                "waitingInDigest", digest.waitingItems()
+        ));
+    } catch (Exception e) {
+        return ResponseEntity.status(403).body("Error fetching notification mode: " + e.getMessage());
+    }
+}
+
+@PutMapping("/notification-mode")
+public ResponseEntity<?> updateNotificationMode(@RequestHeader(value = "Authorization") String authHeader,
+                                                @RequestBody NotificationModeRequest request) {
+    try {
+        validateHrToken(authHeader);
+    } catch (Exception e) {
+        return ResponseEntity.status(403).body(e.getMessage());
+    }
+    if (request.getMode() == null) {
+        return ResponseEntity.status(400).body("mode must be IMMEDIATE or DIGEST");
+    }
+    Hr hr = getHrFromToken(authHeader);
+    Hr saved = hrService.updateNotificationMode(hr, request.getMode());
+
+    auditLogService.logAction(
+            hr.getId().toString(),
+            hr.getName(),
+            "HR",
+            "UPDATE_NOTIFICATION_MODE",
+            "Claim assignment emails set to " + saved.getNotificationMode()
+    );
+    return ResponseEntity.ok(Map.of("mode", saved.getNotificationMode()));
+}
+
+// ================= Claim Counters for Logged-in HR =================
+@GetMapping("/claims/stats")
+public ResponseEntity<?> getAssignedClaimStats(@RequestHeader(value = "Authorization") String authHeader) {
+    try {
+        validateHrToken(authHeader);
+        Hr hr = getHrFromToken(authHeader);
+        return ResponseEntity.ok(claimStatsService.statsForHr(hr.getId()));
+    } catch (Exception e) {
+        return ResponseEntity.status(403).body("Error fetching claim stats: " + e.getMessage());
+    }
+}
+
+// ================= Search Claims Assigned to Logged-in HR =================
+@GetMapping("/claims/search")
+public ResponseEntity<?> searchAssignedClaims(
+        @RequestHeader(value = "Authorization") String authHeader,
+        @RequestParam String q,
+        @RequestParam(required = false) String status,
+        @RequestParam(defaultValue = "20") int size) {
+    try {
+        validateHrToken(authHeader);
+        Hr hr = getHrFromToken(authHeader);
+
+        ClaimService.ClaimSearchPage page = claimService.searchClaims(q, status, hr.getId(), size);
+        List<ClaimDTO> claims = page.rows().stream()
+                .map(c -> new ClaimDTO(c, fraudRingIndex.clusterOf(c.getId())))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(Map.of(
+                "claims", claims,
+                "totalMatches", page.totalMatches(),
+                "indexReady", page.indexReady()
+        ));
+    } catch (Exception e) {
+        return ResponseEntity.status(403).body("Error searching claims: " + e.getMessage());
+    }
+}
+
+// ================= Approve / reject many claims =================
+@PostMapping("/claims/approve/bulk")
+public ResponseEntity<?> approveClaims(
+        @RequestBody BulkDecisionRequest body,
+        @RequestHeader(value = "Authorization") String authHeader) {
+    return decideClaims(body, authHeader, "Approved");
+}
+
+@PostMapping("/claims/reject/bulk")
+public ResponseEntity<?> rejectClaims(
+        @RequestBody BulkDecisionRequest body,
+        @RequestHeader(value = "Authorization") String authHeader) {
+    return decideClaims(body, authHeader, "Rejected");
+}
+
+private ResponseEntity<?> decideClaims(BulkDecisionRequest body, String authHeader, String status) {
+    try {
+        validateHrToken(authHeader);
+        Hr hr = getHrFromToken(authHeader);
+        return ResponseEntity.ok(claimBulkDecisionService.decide(hr, body.getClaimIds(), status, body.getRemarks()));
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.status(400).body(e.getMessage());
+    } catch (Exception e) {
+        return ResponseEntity.status(400).body("Error deciding claims: " + e.getMessage());
+    }
+}
+
 // ================= Approve a claim =================
 @PostMapping("/claims/approve/{claimId}")
 public ResponseEntity<?> approveClaim(
@@ -135,7 +281,9 @@ public ResponseEntity<?> approveClaim(
                 "Approved claim ID: " + claimId
         );
 
-        return ResponseEntity.ok(new ClaimDTO(updated));
+        return ResponseEntity.ok(new ClaimDTO(updated, fraudRingIndex.clusterOf(updated.getId())));
+    } catch (ClaimConflictException e) {
+        return ResponseEntity.status(409).body(e.getMessage());
     } catch (Exception e) {
         return ResponseEntity.status(400).body("Error approving claim: " + e.getMessage());
     }
@@ -163,7 +311,9 @@ public ResponseEntity<?> rejectClaim(
                 "Rejected claim ID: " + claimId
         );
 
-        return ResponseEntity.ok(new ClaimDTO(updated));
+        return ResponseEntity.ok(new ClaimDTO(updated, fraudRingIndex.clusterOf(updated.getId())));
+    } catch (ClaimConflictException e) {
+        return ResponseEntity.status(409).body(e.getMessage());
     } catch (Exception e) {
         return ResponseEntity.status(400).body("Error rejecting claim: " + e.getMessage());
     }
@@ -181,13 +331,10 @@ public ResponseEntity<?> getFraudClaims(@RequestHeader(value = "Authorization")
         Hr hr = hrRepository.findByEmail(hrEmail)
                 .orElseThrow(() -> new RuntimeException("HR not found"));
 
-        List<Claim> claims = claimService.getClaimsByAssignedHr(hr.getId())
-                .stream()
-                .filter(Claim::isFraud)
-                .collect(Collectors.toList());
+        List<ClaimRow> claims = claimService.getClaimRows(new ClaimFilter(null, hr.getId(), null, true, null));
 
         List<ClaimDTO> dtos = claims.stream()
-                .map(ClaimDTO::new)
+                .map(c -> new ClaimDTO(c, fraudRingIndex.clusterOf(c.getId())))
                 .collect(Collectors.toList());
 
         // -------------------- Audit log --------------------
@@ -245,6 +392,10 @@ public static class ClaimDTO {
     private Long assignedHrId;
     private boolean fraudFlag;
     private String fraudReason;
+    private String scoringState;
+    private Long fraudClusterId;
+    private int fraudClusterSize;
+    private int fraudClusterEmployees;
 
     public ClaimDTO(Claim claim) {
         this.id = claim.getId();
@@ -263,6 +414,42 @@ public static class ClaimDTO {
         this.assignedHrId = (claim.getAssignedHr() != null) ? claim.getAssignedHr().getId() : null;
         this.fraudFlag = claim.isFraud();       // map boolean properly
         this.fraudReason = claim.getFraudReason();
+        this.scoringState = claim.getScoringState();
+    }
+
+    public ClaimDTO(Claim claim, FraudRingIndex.Cluster cluster) {
+        this(claim);
+        setCluster(cluster);
+    }
+
+    // From a list projection row (no lazy loading)
+    public ClaimDTO(ClaimRow row, FraudRingIndex.Cluster cluster) {
+        this.id = row.getId();
+        this.title = row.getTitle();
+        this.description = row.getDescription();
+        this.amount = row.getAmount();
+        this.status = row.getStatus();
+        this.remarks = row.getRemarks();
+        this.claimDate = row.getClaimDate();
+        this.createdAt = row.getCreatedAt();
+        this.updatedAt = row.getUpdatedAt();
+        this.employeeId = row.getEmployeeId();
+        this.policyId = row.getPolicyId();
+        this.policyName = row.getPolicyName();
+        this.documents = row.getDocuments();
+        this.assignedHrId = row.getAssignedHrId();
+        this.fraudFlag = row.isFraudFlag();
+        this.fraudReason = row.getFraudReason();
+        this.scoringState = row.getScoringState();
+        setCluster(cluster);
+    }
+
+    private void setCluster(FraudRingIndex.Cluster cluster) {
+        if (cluster != null) {
+            this.fraudClusterId = cluster.clusterId();
+            this.fraudClusterSize = cluster.size();
+            this.fraudClusterEmployees = cluster.employees();
+        }
     }
 
     // Getters
@@ -282,6 +469,10 @@ public static class ClaimDTO {
     public Long getAssignedHrId() { return assignedHrId; }
     public boolean isFraudFlag() { return fraudFlag; }
     public String getFraudReason() { return fraudReason; }
+    public String getScoringState() { return scoringState; }
+    public Long getFraudClusterId() { return fraudClusterId; }
+    public int getFraudClusterSize() { return fraudClusterSize; }
+    public int getFraudClusterEmployees() { return fraudClusterEmployees; }
 }
 
 
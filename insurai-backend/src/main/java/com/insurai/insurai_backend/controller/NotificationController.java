@@ -1,9 +1,12 @@
 package com.insurai.insurai_backend.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,14 +14,24 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.insurai.insurai_backend.model.Admin;
 import com.insurai.insurai_backend.model.Employee;
+import com.insurai.insurai_backend.model.Hr;
 import com.insurai.insurai_backend.model.Notification;
+import com.insurai.insurai_backend.repository.AdminRepository;
 import com.insurai.insurai_backend.repository.EmployeeRepository;
+import com.insurai.insurai_backend.repository.HrRepository;
 import com.insurai.insurai_backend.service.InAppNotificationService;
+import com.insurai.insurai_backend.service.NotificationPushService;
+import com.insurai.insurai_backend.service.UnreadNotificationCounter;
 
 @RestController
 @RequestMapping("/notifications")
@@ -28,6 +41,14 @@ public class NotificationController {
     private InAppNotificationService notificationService;
     @Autowired
     private EmployeeRepository employeeRepository;
+    @Autowired
+    private NotificationPushService notificationPushService;
+    @Autowired
+    private HrRepository hrRepository;
+    @Autowired
+    private AdminRepository adminRepository;
+
+    private static final long MAX_POLL_TIMEOUT_MS = 60_000;
 
     /**
      * Get all notifications for a specific user AND role (sorted by newest first)
@@ -65,6 +86,74 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Number of unread notifications for a user AND role (notification badge)
+     * Example: GET /notifications/user/5/unread/count?role=HR
+     */
+    @GetMapping("/user/{userId}/unread/count")
+    public ResponseEntity<?> countUnreadNotifications(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String role
+    ) {
+        String targetRole = role != null ? role.toUpperCase() : currentRole();
+        if (targetRole == null) {
+            return ResponseEntity.badRequest().body("role is required");
+        }
+        if (!UnreadNotificationCounter.isKnownRole(targetRole)) {
+            return ResponseEntity.badRequest().body("role must be EMPLOYEE, HR or ADMIN");
+        }
+        long unread = notificationService.countUnreadByUserIdAndRole(userId, targetRole);
+        return ResponseEntity.ok(Map.of("userId", userId, "role", targetRole, "unread", unread));
+    }
+
+    /**
+     * Live notifications of the logged-in user as Server-Sent Events ("notification" events,
+     * id = notification id). A reconnecting client sends Last-Event-ID and first gets what it missed.
+     * Example: GET /notifications/me/stream
+     */
+    @GetMapping(value = "/me/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String role = currentRole();
+        Long userId = currentUserId(auth, role);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(notificationPushService.subscribe(userId, role, lastEventId));
+    }
+
+    /**
+     * Long-poll fallback for clients without SSE: the logged-in user's notifications after
+     * {@code after} right away, otherwise waits up to {@code timeoutMs} for the next one
+     * (empty list on timeout).
+     * Example: GET /notifications/me/poll?after=120
+     */
+    @GetMapping("/me/poll")
+    public DeferredResult<List<Notification>> pollNotifications(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "25000") long timeoutMs
+    ) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String role = currentRole();
+        Long userId = currentUserId(auth, role);
+        if (userId == null) {
+            DeferredResult<List<Notification>> unauthorized = new DeferredResult<>();
+            unauthorized.setErrorResult(ResponseEntity.status(401).build());
+            return unauthorized;
+        }
+        long timeout = Math.max(1, Math.min(timeoutMs, MAX_POLL_TIMEOUT_MS));
+        return notificationPushService.poll(userId, role, after, timeout);
+    }
+
+    // Role of the caller's token (EMPLOYEE, HR, ADMIN)
+    private String currentRole() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getAuthorities().isEmpty()) return null;
+        return auth.getAuthorities().iterator().next().getAuthority().replace("ROLE_", "");
+    }
+
     /**
      * Get all notifications for a specific role (sorted by newest first)
      */
@@ -136,6 +225,69 @@ public class NotificationController {
 
 
 
+    /**
+     * Mark all of the logged-in user's notifications as read
+     * Example: PUT /notifications/me/read-all
+     */
+    @PutMapping("/me/read-all")
+    public ResponseEntity<?> markAllAsRead() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String role = currentRole();
+        Long userId = currentUserId(auth, role);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        int updated = notificationService.markAllAsRead(userId, role);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    /**
+     * Mark the given notifications of the logged-in user as read (others are ignored)
+     * Example: PUT /notifications/me/read  body: [12, 15, 18]
+     */
+    @PutMapping("/me/read")
+    public ResponseEntity<?> markAsRead(@RequestBody List<Long> notificationIds) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String role = currentRole();
+        Long userId = currentUserId(auth, role);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        int updated = notificationService.markAsRead(notificationIds, userId, role);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    /**
+     * Delete the logged-in user's notifications older than the given number of days
+     * Example: DELETE /notifications/me?olderThanDays=30
+     */
+    @DeleteMapping("/me")
+    public ResponseEntity<?> deleteOldNotifications(@RequestParam int olderThanDays) {
+        if (olderThanDays < 0) {
+            return ResponseEntity.badRequest().body("olderThanDays must not be negative");
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String role = currentRole();
+        Long userId = currentUserId(auth, role);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        int deleted = notificationService.deleteOlderThan(userId, role, LocalDateTime.now().minusDays(olderThanDays));
+        return ResponseEntity.ok(Map.of("deleted", deleted));
+    }
+
+    // Id of the logged-in user in the table of their role (principal is the email)
+    private Long currentUserId(Authentication auth, String role) {
+        if (auth == null || !auth.isAuthenticated() || role == null) return null;
+        String email = auth.getPrincipal().toString();
+        return switch (role) {
+            case "EMPLOYEE" -> employeeRepository.findByEmail(email).map(Employee::getId).orElse(null);
+            case "HR" -> hrRepository.findByEmail(email).map(Hr::getId).orElse(null);
+            case "ADMIN" -> adminRepository.findByEmail(email).map(Admin::getId).orElse(null);
+            default -> null;
+        };
+    }
+
     /**
      * Delete a notification
      */
@@ -0,0 +1,6 @@
+package com.insurai.insurai_backend.dto;
+
+/**
+ * Optional filters for claim listings; null fields are not applied.
+ */
+public record ClaimFilter(Long employeeId, Long assignedHrId, String status, Boolean fraud, Long policyId) {}
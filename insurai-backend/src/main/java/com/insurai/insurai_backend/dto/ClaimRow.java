@@ -0,0 +1,66 @@
+package com.insurai.insurai_backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Flat read model for claim listings, filled by a JPQL constructor expression so a
+ * page of claims is one select (plus one batched select for the documents) instead
+ * of lazy-loading employee, policy, HR and documents per claim.
+ */
+@Getter
+public class ClaimRow {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final Double amount;
+    private final String status;
+    private final String remarks;
+    private final LocalDateTime claimDate;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    private final Long employeeId;
+    private final String employeeName;
+    private final Long policyId;
+    private final String policyName;
+    private final Long assignedHrId;
+    private final String assignedHrName;
+
+    private final boolean fraudFlag;
+    private final String fraudReason;
+    private final String scoringState;
+
+    // Filled from the batched documents query
+    @Setter
+    private List<String> documents = List.of();
+
+    public ClaimRow(Long id, String title, String description, Double amount, String status, String remarks,
+                    LocalDateTime claimDate, LocalDateTime createdAt, LocalDateTime updatedAt,
+                    Long employeeId, String employeeName, Long policyId, String policyName,
+                    Long assignedHrId, String assignedHrName,
+                    boolean fraudFlag, String fraudReason, String scoringState) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.amount = amount;
+        this.status = status;
+        this.remarks = remarks;
+        this.claimDate = claimDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.employeeId = employeeId;
+        this.employeeName = employeeName;
+        this.policyId = policyId;
+        this.policyName = policyName;
+        this.assignedHrId = assignedHrId;
+        this.assignedHrName = assignedHrName;
+        this.fraudFlag = fraudFlag;
+        this.fraudReason = fraudReason;
+        this.scoringState = scoringState;
+    }
+}
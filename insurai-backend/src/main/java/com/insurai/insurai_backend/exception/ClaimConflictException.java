@@ -0,0 +1,11 @@
+package com.insurai.insurai_backend.exception;
+
+/**
+ * A claim changed under the caller (already decided, or edited concurrently).
+ */
+@SuppressWarnings("serial")
+public class ClaimConflictException extends RuntimeException {
+    public ClaimConflictException(String message) {
+        super(message);
+    }
+}
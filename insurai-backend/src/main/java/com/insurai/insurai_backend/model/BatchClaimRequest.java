@@ -0,0 +1,22 @@
+package com.insurai.insurai_backend.model;
+
+import java.time.LocalDate;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One claim in a bulk ingestion request.
+ */
+@Data
+@NoArgsConstructor
+public class BatchClaimRequest {
+
+    private String externalRef;   // Partner's own reference, echoed back in the result
+    private Long employeeId;
+    private Long policyId;
+    private String title;
+    private String description;
+    private Double amount;
+    private LocalDate claimDate;
+}
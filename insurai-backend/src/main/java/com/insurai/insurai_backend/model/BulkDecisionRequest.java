@@ -0,0 +1,14 @@
+package com.insurai.insurai_backend.model;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BulkDecisionRequest {
+
+    private List<Long> claimIds;
+    private String remarks;     // Applied to every claim in the request
+}
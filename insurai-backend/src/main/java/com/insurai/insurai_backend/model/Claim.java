@@ -2,6 +2,7 @@ package com.insurai.insurai_backend.model;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
@@ -11,14 +12,28 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "claims")
+@Table(name = "claims", indexes = {
+        @Index(name = "idx_claim_duplicate_key", columnList = "duplicate_key"),
+        @Index(name = "idx_claim_scoring_state", columnList = "scoring_state"),
+        // Keyset pagination on (createdAt, id), overall and per employee / assigned HR
+        @Index(name = "idx_claim_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_claim_employee_created_id", columnList = "employee_id, created_at, id"),
+        @Index(name = "idx_claim_hr_created_id", columnList = "assigned_hr_id, created_at, id")
+})
 public class Claim {
 
+    // Fraud scoring sub-states (scoringState)
+    public static final String SCORING = "Scoring";
+    public static final String SCORED = "Scored";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -48,6 +63,7 @@ public class Claim {
     private String remarks;
 
     // Timestamp when claim was created
+    @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
     // Timestamp when claim was last updated
@@ -81,6 +97,27 @@ public class Claim {
     @Column(length = 2000)
     private String fraudReason;
 
+    // Fraud scoring sub-state while status is Pending: Scoring, Scored (null for older claims)
+    @Column(name = "scoring_state")
+    private String scoringState;
+
+    // employeeId|policyId|amount|claimDay, indexed for the duplicate-claim rule
+    @Column(name = "duplicate_key")
+    private String duplicateKey;
+
+    // Optimistic lock for entity saves; bumped by the guarded status/fraud updates too
+    @Version
+    @Column(name = "version", columnDefinition = "bigint not null default 0")
+    private Long version;
+
+    // SHA-256 of documents uploaded with the current request (path -> hash), not persisted here
+    @Transient
+    private Map<String, String> documentFingerprints;
+
+    // When this request reserved the duplicate key in memory (null if it did not win the reservation)
+    @Transient
+    private Long duplicateKeyReservedAt;
+
     // Constructors
     public Claim() {}
 
@@ -100,6 +137,11 @@ public class Claim {
         return id;
     }
 
+    // Used by the JDBC batch insert path, which assigns generated keys itself
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -211,4 +253,44 @@ public class Claim {
     public void setFraudReason(String fraudReason) {
         this.fraudReason = fraudReason;
     }
+
+    public String getScoringState() {
+        return scoringState;
+    }
+
+    public void setScoringState(String scoringState) {
+        this.scoringState = scoringState;
+    }
+
+    public String getDuplicateKey() {
+        return duplicateKey;
+    }
+
+    public void setDuplicateKey(String duplicateKey) {
+        this.duplicateKey = duplicateKey;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Map<String, String> getDocumentFingerprints() {
+        return documentFingerprints;
+    }
+
+    public void setDocumentFingerprints(Map<String, String> documentFingerprints) {
+        this.documentFingerprints = documentFingerprints;
+    }
+
+    public Long getDuplicateKeyReservedAt() {
+        return duplicateKeyReservedAt;
+    }
+
+    public void setDuplicateKeyReservedAt(Long duplicateKeyReservedAt) {
+        this.duplicateKeyReservedAt = duplicateKeyReservedAt;
+    }
 }
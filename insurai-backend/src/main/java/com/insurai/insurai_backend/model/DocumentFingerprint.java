@@ -0,0 +1,44 @@
+package com.insurai.insurai_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * SHA-256 of an uploaded claim document, used by the "Reused document" fraud rule.
+ */
+@Entity
+@Table(name = "document_fingerprints", indexes = {
+        @Index(name = "idx_fingerprint_sha256", columnList = "sha256"),
+        @Index(name = "idx_fingerprint_claim", columnList = "claim_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class DocumentFingerprint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;          // Hex-encoded content hash
+
+    @Column(name = "claim_id", nullable = false)
+    private Long claimId;           // Claim the document was uploaded with
+
+    private Long employeeId;        // Uploading employee
+
+    private String documentPath;    // Stored path (/uploads/...)
+
+    private LocalDateTime createdAt;
+}
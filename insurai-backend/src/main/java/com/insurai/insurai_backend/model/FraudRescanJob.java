@@ -0,0 +1,45 @@
+package com.insurai.insurai_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Checkpoint of an admin-triggered fraud re-scan, so the job can resume after a restart.
+ */
+@Entity
+@Table(name = "fraud_rescan_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class FraudRescanJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String status;          // RUNNING, COMPLETED, FAILED
+
+    private Long lastClaimId = 0L;  // Highest claim id already re-scored
+    private Long totalClaims = 0L;  // Claims in the table when the job started
+    private Long processedCount = 0L;
+    private Long changedCount = 0L; // Claims whose flag or reason changed
+
+    private String triggeredBy;
+
+    @Column(length = 2000)
+    private String error;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
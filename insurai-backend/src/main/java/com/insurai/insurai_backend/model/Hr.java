@@ -39,4 +39,16 @@ public class Hr {
 
     @Column(nullable = false)
     private String password; // Encrypted Password
+
+    // ---- Claim routing ----
+    private Integer routingWeight = 1; // Relative share of claims (null/0 treated as 1)
+
+    private Integer maxPendingClaims; // Pending claims cap; null = unlimited
+
+    private String policyTypes; // Comma-separated policy types preferred for this HR; null = any
+
+    // ---- Notifications ----
+    @Column(name = "notification_mode", length = 16)
+    @Enumerated(EnumType.STRING)
+    private NotificationMode notificationMode = NotificationMode.IMMEDIATE; // null (older rows) = IMMEDIATE
 }
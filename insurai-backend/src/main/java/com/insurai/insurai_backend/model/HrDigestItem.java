@@ -0,0 +1,40 @@
+package com.insurai.insurai_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A claim assignment waiting for the assigned HR's next digest email.
+ */
+@Entity
+@Table(name = "hr_digest_items", indexes = {
+        @Index(name = "idx_hr_digest_items_hr", columnList = "hr_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class HrDigestItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hr_id", nullable = false)
+    private Long hrId;
+
+    @Column(name = "claim_id", nullable = false)
+    private Long claimId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
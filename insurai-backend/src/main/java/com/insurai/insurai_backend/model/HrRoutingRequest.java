@@ -0,0 +1,14 @@
+package com.insurai.insurai_backend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class HrRoutingRequest {
+
+    // Replaces all three settings (PUT); a missing value means the default
+    private Integer routingWeight;     // >= 1; null = 1
+    private Integer maxPendingClaims;  // null or 0 = unlimited
+    private String policyTypes;        // e.g. "Health,Life"; null or blank = any
+}
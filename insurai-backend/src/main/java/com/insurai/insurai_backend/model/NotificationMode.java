@@ -0,0 +1,6 @@
+package com.insurai.insurai_backend.model;
+
+public enum NotificationMode {
+    IMMEDIATE,  // one email per assigned claim
+    DIGEST      // assigned claims collected into periodic digest emails
+}
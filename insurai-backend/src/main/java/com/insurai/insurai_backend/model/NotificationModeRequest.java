@@ -0,0 +1,11 @@
+package com.insurai.insurai_backend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class NotificationModeRequest {
+
+    private NotificationMode mode;     // IMMEDIATE or DIGEST
+}
@@ -1,18 +1,28 @@
 package com.insurai.insurai_backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.insurai.insurai_backend.dto.ClaimRow;
 import com.insurai.insurai_backend.model.Claim;
 import com.insurai.insurai_backend.model.Employee;
 import com.insurai.insurai_backend.model.Hr;
 import com.insurai.insurai_backend.model.Policy;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ClaimRepository extends JpaRepository<Claim, Long> {
 
@@ -40,15 +50,151 @@ public interface ClaimRepository extends JpaRepository<Claim, Long> {
     // Count pending claims for a specific HR
     int countByAssignedHrAndStatus(Hr hr, String status);
 
+    // Pending claims per assigned HR in one grouped query: [hrId, count]
+    @Query("SELECT c.assignedHr.id, COUNT(c) FROM Claim c WHERE c.status = 'Pending' AND c.assignedHr IS NOT NULL GROUP BY c.assignedHr.id")
+    List<Object[]> countPendingByAssignedHr();
+
     // -------------------- New: fetch claim by ID with employee eagerly --------------------
     @Query("SELECT c FROM Claim c JOIN FETCH c.employee WHERE c.id = :claimId")
     Optional<Claim> findByIdWithEmployee(@Param("claimId") Long claimId);
 
+    // Claims for a bulk decision, with everything the notifications read (read-only: never flushed back)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT c FROM Claim c JOIN FETCH c.employee JOIN FETCH c.policy LEFT JOIN FETCH c.assignedHr WHERE c.id IN :claimIds")
+    List<Claim> findByIdInWithDetails(@Param("claimIds") Collection<Long> claimIds);
+
     // Optional: fetch all claims with HR info (if needed for admin dashboards)
     @Query("SELECT c FROM Claim c LEFT JOIN FETCH c.assignedHr")
     List<Claim> findAllWithHrDetails();
 
     List<Claim> findByAssignedHrIdAndFraudFlag(Long hrId, boolean fraudFlag);
 
-}
+    // Employee history by primary key (used to seed fraud profiles)
+    List<Claim> findByEmployee_Id(Long employeeId);
+
+    // History of many employees at once (batch ingestion profiles; read-only)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Claim> findByEmployee_IdIn(Collection<Long> employeeIds);
+
+    // Employee history up to a claim id (used to resume a fraud re-scan)
+    List<Claim> findByEmployee_IdAndIdLessThanEqual(Long employeeId, Long claimId);
+
+    // Apply the outcome of asynchronous fraud scoring
+    @Modifying
+    @Transactional
+    @Query("UPDATE Claim c SET c.fraudFlag = :fraudFlag, c.fraudReason = :fraudReason, c.scoringState = :scoringState,"
+            + " c.version = c.version + 1 WHERE c.id = :claimId")
+    int updateFraudResult(@Param("claimId") Long claimId, @Param("fraudFlag") boolean fraudFlag,
+                          @Param("fraudReason") String fraudReason, @Param("scoringState") String scoringState);
+
+    // Pending -> Approved/Rejected in one guarded statement; 0 rows means someone else decided first
+    // or the claim is still being fraud-scored
+    @Modifying
+    @Transactional
+    @Query("UPDATE Claim c SET c.status = :status, c.remarks = :remarks, c.updatedAt = :updatedAt,"
+            + " c.version = c.version + 1 WHERE c.id = :claimId AND c.status = 'Pending'"
+            + " AND (c.scoringState IS NULL OR c.scoringState <> 'Scoring')")
+    int decidePending(@Param("claimId") Long claimId, @Param("status") String status,
+                      @Param("remarks") String remarks, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Current status of several claims: [id, status]
+    @Query("SELECT c.id, c.status FROM Claim c WHERE c.id IN :ids")
+    List<Object[]> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Claims still waiting for fraud scoring, with everything the scoring stage touches
+    @Query("SELECT c FROM Claim c JOIN FETCH c.employee JOIN FETCH c.policy LEFT JOIN FETCH c.assignedHr WHERE c.scoringState = :scoringState")
+    List<Claim> findByScoringStateWithDetails(@Param("scoringState") String scoringState);
+
+    // Indexed duplicate-claim probe
+    boolean existsByDuplicateKey(String duplicateKey);
+
+    // An earlier claim with the same key (the later one is the duplicate)
+    boolean existsByDuplicateKeyAndIdLessThan(String duplicateKey, Long id);
+
+    // Rows created before duplicate keys existed: [id, employeeId, policyId, amount, claimDate]
+    @Query("SELECT c.id, c.employee.id, c.policy.id, c.amount, c.claimDate FROM Claim c WHERE c.duplicateKey IS NULL ORDER BY c.id")
+    List<Object[]> findMissingDuplicateKeys(Pageable pageable);
+
+    // Keyset page in id order with the policy loaded (fraud re-scan)
+    @Query("SELECT c FROM Claim c JOIN FETCH c.policy WHERE c.id > :afterId ORDER BY c.id")
+    List<Claim> findRescanBatch(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset page of the fields the fraud ring graph links on: [id, title, amount, claimDate, employeeId]
+    @Query("SELECT c.id, c.title, c.amount, c.claimDate, c.employee.id FROM Claim c WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findRingGraphBatch(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Search index build: keyset page of indexed text and filter fields in (afterId, lastId]
+    // [id, title, description, remarks, fraudReason, status, assignedHrId]
+    @Query("SELECT c.id, c.title, c.description, c.remarks, c.fraudReason, c.status, h.id FROM Claim c"
+            + " LEFT JOIN c.assignedHr h WHERE c.id > :afterId AND c.id <= :lastId ORDER BY c.id")
+    List<Object[]> findSearchBatch(@Param("afterId") Long afterId, @Param("lastId") Long lastId, Pageable pageable);
+
+    // Same fields for given claims, re-read after writes that bypass the entity
+    @Query("SELECT c.id, c.title, c.description, c.remarks, c.fraudReason, c.status, h.id FROM Claim c"
+            + " LEFT JOIN c.assignedHr h WHERE c.id IN :claimIds")
+    List<Object[]> findSearchRowsByIds(@Param("claimIds") Collection<Long> claimIds);
+
+    @Query("SELECT MAX(c.id) FROM Claim c")
+    Long findMaxId();
+
+    // Dashboard counters: [status, assignedHrId, policyId, policyType, fraudFlag, count, amountSum]
+    @Query("SELECT c.status, h.id, p.id, p.policyType, c.fraudFlag, COUNT(c), SUM(c.amount) FROM Claim c"
+            + " JOIN c.policy p LEFT JOIN c.assignedHr h GROUP BY c.status, h.id, p.id, p.policyType, c.fraudFlag")
+    List<Object[]> aggregateForStats();
+
+    // Current values behind the dashboard counters, read before an edit is saved
+    // [status, assignedHrId, policyId, policyType, fraudFlag, amount]
+    @Query("SELECT c.status, h.id, p.id, p.policyType, c.fraudFlag, c.amount FROM Claim c"
+            + " JOIN c.policy p LEFT JOIN c.assignedHr h WHERE c.id = :claimId")
+    List<Object[]> findStatsFieldsById(@Param("claimId") Long claimId);
+
+    // ---- Claim listings: ClaimRow projections, newest first ----
+
+    String CLAIM_ROW = "SELECT new com.insurai.insurai_backend.dto.ClaimRow("
+            + "c.id, c.title, c.description, c.amount, c.status, c.remarks, c.claimDate, c.createdAt, c.updatedAt,"
+            + " e.id, e.name, p.id, p.policyName, h.id, h.name, c.fraudFlag, c.fraudReason, c.scoringState)"
+            + " FROM Claim c JOIN c.employee e JOIN c.policy p LEFT JOIN c.assignedHr h";
+
+    String PAGE_FILTERS = " (:employeeId IS NULL OR c.employee.id = :employeeId)"
+            + " AND (:hrId IS NULL OR c.assignedHr.id = :hrId)"
+            + " AND (:status IS NULL OR c.status = :status)"
+            + " AND (:fraud IS NULL OR c.fraudFlag = :fraud)"
+            + " AND (:policyId IS NULL OR c.policy.id = :policyId)";
+
+    String NEWEST_FIRST = " ORDER BY c.createdAt DESC, c.id DESC";
+
+    // Whole (filtered) list, for the unpaginated endpoints
+    @Query(CLAIM_ROW + " WHERE" + PAGE_FILTERS + NEWEST_FIRST)
+    List<ClaimRow> findRows(@Param("employeeId") Long employeeId, @Param("hrId") Long hrId,
+                            @Param("status") String status, @Param("fraud") Boolean fraud,
+                            @Param("policyId") Long policyId);
+
+    // Keyset pages on (createdAt, id)
+    @Query(CLAIM_ROW + " WHERE" + PAGE_FILTERS + NEWEST_FIRST)
+    List<ClaimRow> findFirstPage(@Param("employeeId") Long employeeId, @Param("hrId") Long hrId,
+                                 @Param("status") String status, @Param("fraud") Boolean fraud,
+                                 @Param("policyId") Long policyId, Pageable pageable);
+
+    @Query(CLAIM_ROW + " WHERE" + PAGE_FILTERS
+            + " AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))"
+            + NEWEST_FIRST)
+    List<ClaimRow> findPageAfter(@Param("employeeId") Long employeeId, @Param("hrId") Long hrId,
+                                 @Param("status") String status, @Param("fraud") Boolean fraud,
+                                 @Param("policyId") Long policyId,
+                                 @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                 Pageable pageable);
+
+    // Rows for given ids (search hits), in no particular order
+    @Query(CLAIM_ROW + " WHERE c.id IN :claimIds")
+    List<ClaimRow> findRowsByIds(@Param("claimIds") Collection<Long> claimIds);
+
+    // Documents for a batch of claims: [claimId, documentPath]
+    @Query("SELECT c.id, d FROM Claim c JOIN c.documents d WHERE c.id IN :claimIds")
+    List<Object[]> findDocumentsByClaimIds(@Param("claimIds") Collection<Long> claimIds);
+
+    @Query("SELECT COUNT(c) FROM Claim c WHERE" + PAGE_FILTERS)
+    long countFiltered(@Param("employeeId") Long employeeId, @Param("hrId") Long hrId,
+                       @Param("status") String status, @Param("fraud") Boolean fraud,
+                       @Param("policyId") Long policyId);
 
+}
@@ -0,0 +1,33 @@
+package com.insurai.insurai_backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.insurai.insurai_backend.model.DocumentFingerprint;
+
+@Repository
+public interface DocumentFingerprintRepository extends JpaRepository<DocumentFingerprint, Long> {
+
+    // Indexed probe: has any of these hashes been uploaded before?
+    boolean existsBySha256In(Collection<String> sha256);
+
+    // Fingerprints stored for a claim
+    List<DocumentFingerprint> findByClaimId(Long claimId);
+
+    // Fingerprints for a page of claims
+    List<DocumentFingerprint> findByClaimIdIn(Collection<Long> claimIds);
+
+    // First claim each hash was uploaded with: [sha256, min(claimId)]
+    @Query("SELECT f.sha256, MIN(f.claimId) FROM DocumentFingerprint f WHERE f.sha256 IN :hashes GROUP BY f.sha256")
+    List<Object[]> findFirstClaimIds(@Param("hashes") Collection<String> hashes);
+
+    // Keyset scan used to warm the in-memory Bloom filter
+    @Query("SELECT f FROM DocumentFingerprint f WHERE f.id > :afterId ORDER BY f.id")
+    List<DocumentFingerprint> findNextBatch(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,66 @@
+package com.insurai.insurai_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.insurai.insurai_backend.model.EmailOutbox;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Due rows, plus SENDING rows whose worker lease lapsed; rows locked by another poller are skipped
+    @Query(value = "SELECT id FROM email_outbox"
+            + " WHERE (status = 'PENDING' AND next_attempt_at <= :now)"
+            + " OR (status = 'SENDING' AND locked_until < :now)"
+            + " ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 'SENDING', e.lockedUntil = :lockedUntil, e.attempts = e.attempts + 1"
+            + " WHERE e.id IN :ids")
+    int markSending(@Param("ids") Collection<Long> ids, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    // The outcome of a send is only recorded while the row is still this attempt's claim;
+    // after the lease lapsed and another worker re-claimed it, these match nothing.
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = 'SENT', e.sentAt = :sentAt, e.lockedUntil = NULL, e.lastError = NULL"
+            + " WHERE e.id = :id AND e.status = 'SENDING' AND e.attempts = :attempts")
+    int markSent(@Param("id") Long id, @Param("attempts") int attempts, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = 'PENDING', e.nextAttemptAt = :nextAttemptAt, e.lockedUntil = NULL,"
+            + " e.lastError = :error WHERE e.id = :id AND e.status = 'SENDING' AND e.attempts = :attempts")
+    int markRetry(@Param("id") Long id, @Param("attempts") int attempts,
+                  @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = 'DEAD', e.lockedUntil = NULL, e.lastError = :error"
+            + " WHERE e.id = :id AND e.status = 'SENDING' AND e.attempts = :attempts")
+    int markDead(@Param("id") Long id, @Param("attempts") int attempts, @Param("error") String error);
+
+    // Dead letter -> queue again with a fresh attempt budget
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = 'PENDING', e.attempts = 0, e.nextAttemptAt = :now"
+            + " WHERE e.id = :id AND e.status = 'DEAD'")
+    int requeueDead(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // [status, count]
+    @Query("SELECT e.status, COUNT(e) FROM EmailOutbox e GROUP BY e.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = 'DEAD' ORDER BY e.id DESC")
+    List<EmailOutbox> findDead(Pageable pageable);
+}
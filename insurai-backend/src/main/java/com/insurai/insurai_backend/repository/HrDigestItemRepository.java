@@ -0,0 +1,26 @@
+package com.insurai.insurai_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.insurai.insurai_backend.model.HrDigestItem;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface HrDigestItemRepository extends JpaRepository<HrDigestItem, Long> {
+
+    // Locked so two flushes of the same HR cannot both send the items
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM HrDigestItem i WHERE i.hrId = :hrId ORDER BY i.id")
+    List<HrDigestItem> lockByHrId(@Param("hrId") Long hrId);
+
+    // [hrId, count, oldest createdAt]
+    @Query("SELECT i.hrId, COUNT(i), MIN(i.createdAt) FROM HrDigestItem i GROUP BY i.hrId")
+    List<Object[]> summarizeByHr();
+}
@@ -0,0 +1,56 @@
+package com.insurai.insurai_backend.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.insurai.insurai_backend.model.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claim a key; 0 rows means another request holds it already
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (idem_key, request_hash, state, created_at, expires_at)"
+            + " VALUES (:key, :requestHash, 'IN_PROGRESS', :createdAt, :expiresAt)", nativeQuery = true)
+    int reserve(@Param("key") String key, @Param("requestHash") String requestHash,
+                @Param("createdAt") LocalDateTime createdAt, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.state = 'COMPLETED', r.responseStatus = :status, r.responseBody = :body"
+            + " WHERE r.key = :key")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("body") String body);
+
+    // Joins the caller's transaction, so the key and the written row commit together
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.resourceId = :resourceId WHERE r.key = :key")
+    int attachResource(@Param("key") String key, @Param("resourceId") Long resourceId);
+
+    // Free a key whose request failed before writing anything
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.state = 'IN_PROGRESS' AND r.resourceId IS NULL")
+    int release(@Param("key") String key);
+
+    // Take over an expired key, or one whose request died before writing anything;
+    // 0 rows means it is not abandoned (any more), e.g. another retry took it first
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND (r.expiresAt < :now"
+            + " OR (r.state = 'IN_PROGRESS' AND r.resourceId IS NULL AND r.createdAt < :startedBefore))")
+    int releaseAbandoned(@Param("key") String key, @Param("now") LocalDateTime now,
+                         @Param("startedBefore") LocalDateTime startedBefore);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
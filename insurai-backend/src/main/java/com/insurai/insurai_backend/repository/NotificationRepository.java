@@ -1,9 +1,15 @@
 package com.insurai.insurai_backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.insurai.insurai_backend.model.Notification;
 
@@ -29,6 +35,52 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
         Long targetId, String targetRole, String notificationType
     );
 
+    // Unread count for a user with a specific role (seeds the badge counter)
+    long countByTargetIdAndTargetRoleAndReadStatusFalse(Long targetId, String targetRole);
+
+    // Notifications a push client missed (ids above its Last-Event-ID), oldest first
+    List<Notification> findTop100ByTargetIdAndTargetRoleAndIdGreaterThanOrderByIdAsc(
+        Long targetId, String targetRole, Long id
+    );
+
+    // ------------------ Bulk (scoped to one user and role) ------------------
+
+    // Mark every unread notification of a user as read; returns how many changed
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.readStatus = true, n.updatedAt = :now"
+            + " WHERE n.targetId = :targetId AND n.targetRole = :targetRole AND n.readStatus = false")
+    int markAllRead(@Param("targetId") Long targetId, @Param("targetRole") String targetRole,
+                    @Param("now") LocalDateTime now);
+
+    // Mark the given notifications as read; ids of other users or already read ones are skipped
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.readStatus = true, n.updatedAt = :now"
+            + " WHERE n.id IN :ids AND n.targetId = :targetId AND n.targetRole = :targetRole AND n.readStatus = false")
+    int markReadByIds(@Param("ids") Collection<Long> ids, @Param("targetId") Long targetId,
+                      @Param("targetRole") String targetRole, @Param("now") LocalDateTime now);
+
+    // Delete a user's notifications created before the cutoff; returns how many were deleted
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Notification n"
+            + " WHERE n.targetId = :targetId AND n.targetRole = :targetRole AND n.createdAt < :before")
+    int deleteOlderThan(@Param("targetId") Long targetId, @Param("targetRole") String targetRole,
+                        @Param("before") LocalDateTime before);
+
+    // Delete one notification only while it is unread; 1 means this call removed an unread one
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.readStatus = false")
+    int deleteUnreadById(@Param("id") Long id);
+
+    // Delete one notification whatever its read status; returns how many were deleted (0 or 1)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Notification n WHERE n.id = :id")
+    int deleteOneById(@Param("id") Long id);
+
     // ------------------ By Role ------------------
 
     // All notifications for a role
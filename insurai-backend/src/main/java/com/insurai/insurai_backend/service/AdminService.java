@@ -5,8 +5,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.insurai.insurai_backend.config.JwtUtil;
+import com.insurai.insurai_backend.exception.UserNotFoundException;
 import com.insurai.insurai_backend.model.Agent;
 import com.insurai.insurai_backend.model.Hr;
+import com.insurai.insurai_backend.model.HrRoutingRequest;
 import com.insurai.insurai_backend.model.RegisterRequest;
 import com.insurai.insurai_backend.repository.AgentRepository;
 import com.insurai.insurai_backend.repository.HrRepository;
@@ -29,6 +31,9 @@ public class AdminService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private HrLoadTracker hrLoadTracker;
+
     // -------------------- Admin login --------------------
     public boolean validateAdmin(String email, String password) {
         return ADMIN_EMAIL.equals(email) && ADMIN_PASSWORD.equals(password);
@@ -81,6 +86,29 @@ public class AdminService {
         hr.setPhoneNumber(request.getPhoneNumber());
         hr.setHrId(request.getHrId());
         hr.setPassword(passwordEncoder.encode(request.getPassword()));
-        hrRepository.save(hr);
+        hrLoadTracker.hrUpdated(hrRepository.save(hr));
+    }
+
+    // -------------------- HR claim routing settings --------------------
+    public Hr updateHrRouting(Long hrId, HrRoutingRequest request) {
+        if (request.getRoutingWeight() != null && request.getRoutingWeight() < 1) {
+            throw new IllegalArgumentException("routingWeight must be at least 1");
+        }
+        if (request.getMaxPendingClaims() != null && request.getMaxPendingClaims() < 0) {
+            throw new IllegalArgumentException("maxPendingClaims cannot be negative");
+        }
+
+        // PUT: every setting is replaced, a missing one goes back to its default
+        Hr hr = hrRepository.findById(hrId)
+                .orElseThrow(() -> new UserNotFoundException("HR not found with id: " + hrId));
+        hr.setRoutingWeight(request.getRoutingWeight() != null ? request.getRoutingWeight() : 1);
+        hr.setMaxPendingClaims(request.getMaxPendingClaims() != null && request.getMaxPendingClaims() > 0
+                ? request.getMaxPendingClaims() : null);
+        hr.setPolicyTypes(request.getPolicyTypes() != null && !request.getPolicyTypes().isBlank()
+                ? request.getPolicyTypes().trim() : null);
+
+        Hr saved = hrRepository.save(hr);
+        hrLoadTracker.hrUpdated(saved);
+        return saved;
     }
 }
@@ -34,6 +34,17 @@ public class AuditLogService {
         auditLogRepository.save(log);
     }
 
+    /**
+     * Log many actions in one repository call (bulk claim decisions).
+     */
+    public void logActions(List<AuditLog> logs) {
+        LocalDateTime now = LocalDateTime.now();
+        for (AuditLog log : logs) {
+            if (log.getTimestamp() == null) log.setTimestamp(now);
+        }
+        auditLogRepository.saveAll(logs);
+    }
+
     /**
      * Fetch all audit logs, most recent first.
      * Used for Admin dashboard.
@@ -0,0 +1,302 @@
+package com.insurai.insurai_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.insurai.insurai_backend.model.BatchClaimRequest;
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.model.Employee;
+import com.insurai.insurai_backend.model.Hr;
+import com.insurai.insurai_backend.model.Policy;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+import com.insurai.insurai_backend.repository.EmployeeRepository;
+import com.insurai.insurai_backend.repository.PolicyRepository;
+import com.insurai.insurai_backend.service.fraud.DuplicateClaimIndex;
+import com.insurai.insurai_backend.service.fraud.EmployeeFraudProfile;
+import com.insurai.insurai_backend.service.fraud.FraudFeatureStore;
+import com.insurai.insurai_backend.service.fraud.FraudRingIndex;
+import com.insurai.insurai_backend.service.search.ClaimSearchIndex;
+
+/**
+ * Bulk claim ingestion for partner TPAs.
+ *
+ * A batch is validated with one lookup each for employees and policies, scored
+ * against every employee's stored claims plus the earlier rows of the same batch,
+ * routed to HRs in memory and written with JDBC batch inserts in one transaction.
+ *
+ * {@code Claim} uses IDENTITY keys, which turns off Hibernate insert batching, so
+ * this path bypasses the entity manager: rows go out through
+ * {@link NamedParameterJdbcTemplate#batchUpdate(String, SqlParameterSource[], KeyHolder)}
+ * and the generated ids are read back from the batch (MySQL returns them in order).
+ */
+@Service
+public class ClaimBatchService {
+
+    private static final String INSERT_SQL = "INSERT INTO claims (title, description, amount, claim_date, status,"
+            + " created_at, updated_at, employee_id, policy_id, assigned_hr_id, fraud_flag, fraud_reason,"
+            + " scoring_state, duplicate_key, version)"
+            + " VALUES (:title, :description, :amount, :claimDate, :status, :createdAt, :updatedAt, :employeeId,"
+            + " :policyId, :assignedHrId, :fraudFlag, :fraudReason, :scoringState, :duplicateKey, 0)";
+
+    private static final int INSERT_CHUNK_SIZE = 500;
+    private static final int HISTORY_CHUNK_SIZE = 1000;
+
+    private final ClaimRepository claimRepository;
+    private final EmployeeRepository employeeRepository;
+    private final PolicyRepository policyRepository;
+    private final FraudService fraudService;
+    private final FraudFeatureStore fraudFeatureStore;
+    private final FraudRingIndex fraudRingIndex;
+    private final DuplicateClaimIndex duplicateClaimIndex;
+    private final HrLoadTracker hrLoadTracker;
+    private final InAppNotificationService inAppNotificationService;
+    private final ClaimSearchIndex claimSearchIndex;
+    private final ClaimStatsService claimStatsService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+
+    public ClaimBatchService(ClaimRepository claimRepository,
+                             EmployeeRepository employeeRepository,
+                             PolicyRepository policyRepository,
+                             FraudService fraudService,
+                             FraudFeatureStore fraudFeatureStore,
+                             FraudRingIndex fraudRingIndex,
+                             DuplicateClaimIndex duplicateClaimIndex,
+                             HrLoadTracker hrLoadTracker,
+                             InAppNotificationService inAppNotificationService,
+                             ClaimSearchIndex claimSearchIndex,
+                             ClaimStatsService claimStatsService,
+                             NamedParameterJdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${claims.batch.max-size:5000}") int maxBatchSize) {
+        this.claimRepository = claimRepository;
+        this.employeeRepository = employeeRepository;
+        this.policyRepository = policyRepository;
+        this.fraudService = fraudService;
+        this.fraudFeatureStore = fraudFeatureStore;
+        this.fraudRingIndex = fraudRingIndex;
+        this.duplicateClaimIndex = duplicateClaimIndex;
+        this.hrLoadTracker = hrLoadTracker;
+        this.inAppNotificationService = inAppNotificationService;
+        this.claimSearchIndex = claimSearchIndex;
+        this.claimStatsService = claimStatsService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public record RowResult(int index, String externalRef, String result, Long claimId, Long assignedHrId,
+                            boolean fraudFlag, String fraudReason, String error) {}
+
+    public record BatchResult(int received, int created, int rejected, List<RowResult> rows) {}
+
+    public BatchResult ingest(List<BatchClaimRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("No claims in batch");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch too large: " + requests.size() + " claims (max " + maxBatchSize + ")");
+        }
+
+        // ---- Lookups: one query each ----
+        Map<Long, Employee> employees = employeeRepository.findAllById(idsOf(requests, BatchClaimRequest::getEmployeeId))
+                .stream().collect(Collectors.toMap(Employee::getId, Function.identity()));
+        Map<Long, Policy> policies = policyRepository.findAllById(idsOf(requests, BatchClaimRequest::getPolicyId))
+                .stream().collect(Collectors.toMap(Policy::getId, Function.identity()));
+
+        RowResult[] results = new RowResult[requests.size()];
+        Map<Integer, Claim> accepted = new LinkedHashMap<>();
+        Map<Long, EmployeeFraudProfile> profiles = loadProfiles(employees.keySet());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < requests.size(); i++) {
+            BatchClaimRequest request = requests.get(i);
+            String error = validate(request, employees, policies);
+            if (error != null) {
+                results[i] = rejected(i, request, error);
+                continue;
+            }
+
+            Claim claim = new Claim(request.getTitle(), request.getDescription(), request.getAmount(),
+                    request.getClaimDate().atStartOfDay(), employees.get(request.getEmployeeId()),
+                    policies.get(request.getPolicyId()), null, new ArrayList<>());
+            claim.setStatus("Pending");
+            claim.setCreatedAt(now);
+            claim.setUpdatedAt(now);
+            claim.setScoringState(Claim.SCORED);
+            claim.setDuplicateKey(DuplicateClaimIndex.keyFor(claim));
+
+            // Batch-local profile: stored history, then each accepted row of this batch in order
+            EmployeeFraudProfile profile = profiles.computeIfAbsent(request.getEmployeeId(),
+                    id -> new EmployeeFraudProfile());
+            try {
+                // The profile holds the employee's stored duplicate keys, so only in-flight reservations need checking
+                boolean duplicate = duplicateClaimIndex.reserveRecent(claim)
+                        || profile.hasDuplicate(claim.getPolicy().getId(), claim.getAmount(),
+                                claim.getClaimDate().toLocalDate());
+                fraudService.runFraudDetection(claim, profile, duplicate);
+            } catch (Exception e) {
+                System.err.println("⚠️ Fraud detection failed for batch row " + i + ": " + e.getMessage());
+                claim.setFraudFlag(false);
+                claim.setFraudReason(null);
+            }
+            profile.record(claim);
+
+            claim.setAssignedHr(hrLoadTracker.assign(claim));
+            accepted.put(i, claim);
+        }
+
+        // ---- Persist ----
+        if (!accepted.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(new ArrayList<>(accepted.values())));
+            } catch (RuntimeException e) {
+                // Nothing was written: undo the in-memory reservations and report every accepted row as failed
+                for (Claim claim : accepted.values()) {
+                    duplicateClaimIndex.release(claim);
+                    if (claim.getAssignedHr() != null) {
+                        hrLoadTracker.release(claim.getAssignedHr().getId());
+                    }
+                }
+                for (Map.Entry<Integer, Claim> entry : accepted.entrySet()) {
+                    int i = entry.getKey();
+                    results[i] = rejected(i, requests.get(i), "Batch insert failed: " + e.getMessage());
+                }
+                return summarize(results);
+            }
+        }
+
+        // ---- Post-commit: in-memory indexes, results, one notification per HR ----
+        Map<Hr, Integer> assignedPerHr = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Claim> entry : accepted.entrySet()) {
+            int i = entry.getKey();
+            Claim claim = entry.getValue();
+            fraudFeatureStore.record(claim);
+            fraudRingIndex.onClaimSaved(claim);
+            if (claim.getAssignedHr() != null) {
+                assignedPerHr.merge(claim.getAssignedHr(), 1, Integer::sum);
+            }
+            results[i] = new RowResult(i, requests.get(i).getExternalRef(), "CREATED", claim.getId(),
+                    claim.getAssignedHr() != null ? claim.getAssignedHr().getId() : null,
+                    claim.isFraud(), claim.getFraudReason(), null);
+        }
+        claimSearchIndex.indexAll(accepted.values());
+        claimStatsService.created(new ArrayList<>(accepted.values()));
+        assignedPerHr.forEach((hr, count) -> inAppNotificationService.createNotification(
+                "New Claims Assigned",
+                count + " new claim" + (count == 1 ? " has" : "s have") + " been assigned to you from a bulk upload.",
+                hr.getId(),
+                "HR",
+                "CLAIM"
+        ));
+
+        return summarize(results);
+    }
+
+    private void insert(List<Claim> claims) {
+        for (int from = 0; from < claims.size(); from += INSERT_CHUNK_SIZE) {
+            List<Claim> chunk = claims.subList(from, Math.min(claims.size(), from + INSERT_CHUNK_SIZE));
+            SqlParameterSource[] params = new SqlParameterSource[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                Claim c = chunk.get(i);
+                params[i] = new MapSqlParameterSource()
+                        .addValue("title", c.getTitle())
+                        .addValue("description", c.getDescription())
+                        .addValue("amount", c.getAmount())
+                        .addValue("claimDate", c.getClaimDate())
+                        .addValue("status", c.getStatus())
+                        .addValue("createdAt", c.getCreatedAt())
+                        .addValue("updatedAt", c.getUpdatedAt())
+                        .addValue("employeeId", c.getEmployee().getId())
+                        .addValue("policyId", c.getPolicy().getId())
+                        .addValue("assignedHrId", c.getAssignedHr() != null ? c.getAssignedHr().getId() : null)
+                        .addValue("fraudFlag", c.isFraud())
+                        .addValue("fraudReason", c.getFraudReason())
+                        .addValue("scoringState", c.getScoringState())
+                        .addValue("duplicateKey", c.getDuplicateKey());
+            }
+
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(INSERT_SQL, params, keys);
+
+            List<Map<String, Object>> keyList = keys.getKeyList();
+            for (int i = 0; i < chunk.size(); i++) {
+                // MySQL labels the AUTO_INCREMENT value GENERATED_KEY
+                Object id = keyList.get(i).get("GENERATED_KEY");
+                if (!(id instanceof Number)) {
+                    throw new IllegalStateException("No generated id returned for batch row " + (from + i));
+                }
+                chunk.get(i).setId(((Number) id).longValue());
+            }
+        }
+    }
+
+    private static String validate(BatchClaimRequest r, Map<Long, Employee> employees, Map<Long, Policy> policies) {
+        if (r == null) return "Empty row";
+        if (r.getTitle() == null || r.getTitle().isBlank()) return "title is required";
+        if (r.getAmount() == null || r.getAmount() <= 0) return "amount must be positive";
+        if (r.getClaimDate() == null) return "claimDate is required";
+        if (r.getEmployeeId() == null || !employees.containsKey(r.getEmployeeId())) return "Employee not found";
+        Policy policy = r.getPolicyId() != null ? policies.get(r.getPolicyId()) : null;
+        if (policy == null) return "Policy not found";
+        if (policy.getCoverageAmount() != null && r.getAmount() > policy.getCoverageAmount()) {
+            return "Claim amount exceeds policy coverage!";
+        }
+        return null;
+    }
+
+    // Stored claim history of the batch's employees, one IN query per HISTORY_CHUNK_SIZE employees
+    private Map<Long, EmployeeFraudProfile> loadProfiles(Set<Long> employeeIds) {
+        Map<Long, EmployeeFraudProfile> profiles = new HashMap<>();
+        for (Long id : employeeIds) {
+            profiles.put(id, new EmployeeFraudProfile());
+        }
+        List<Long> ids = new ArrayList<>(employeeIds);
+        for (int from = 0; from < ids.size(); from += HISTORY_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + HISTORY_CHUNK_SIZE));
+            for (Claim claim : claimRepository.findByEmployee_IdIn(chunk)) {
+                profiles.get(claim.getEmployee().getId()).record(claim);
+            }
+        }
+        return profiles;
+    }
+
+    private static Set<Long> idsOf(List<BatchClaimRequest> requests, Function<BatchClaimRequest, Long> id) {
+        Set<Long> ids = new HashSet<>();
+        for (BatchClaimRequest r : requests) {
+            if (r != null && id.apply(r) != null) ids.add(id.apply(r));
+        }
+        return ids;
+    }
+
+    private static RowResult rejected(int index, BatchClaimRequest request, String error) {
+        return new RowResult(index, request != null ? request.getExternalRef() : null, "REJECTED",
+                null, null, false, null, error);
+    }
+
+    private static BatchResult summarize(RowResult[] results) {
+        int created = 0;
+        for (RowResult r : results) {
+            if ("CREATED".equals(r.result())) created++;
+        }
+        return new BatchResult(results.length, created, results.length - created, List.of(results));
+    }
+}
@@ -0,0 +1,172 @@
+package com.insurai.insurai_backend.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.model.Hr;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+import com.insurai.insurai_backend.service.fraud.FraudFeatureStore;
+import com.insurai.insurai_backend.service.search.ClaimSearchIndex;
+
+/**
+ * Approve or reject many Pending claims in one request.
+ *
+ * The claims are loaded with one query, the status changes go out as one JDBC
+ * batch of guarded updates ({@code WHERE status = 'Pending'}, like the single-claim
+ * path) in one transaction together with the status emails for the outbox and the
+ * audit rows and notifications ({@link ClaimDecisionDispatcher}), one batch each.
+ */
+@Service
+public class ClaimBulkDecisionService {
+
+    private static final String DECIDE_SQL = "UPDATE claims SET status = ?, remarks = ?, updated_at = ?,"
+            + " version = version + 1 WHERE id = ? AND status = 'Pending'"
+            + " AND (scoring_state IS NULL OR scoring_state <> 'Scoring')";
+
+    private final ClaimRepository claimRepository;
+    private final FraudFeatureStore fraudFeatureStore;
+    private final HrLoadTracker hrLoadTracker;
+    private final ClaimDecisionDispatcher claimDecisionDispatcher;
+    private final ClaimSearchIndex claimSearchIndex;
+    private final ClaimStatsService claimStatsService;
+    private final NotificationService notificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxClaims;
+
+    public ClaimBulkDecisionService(ClaimRepository claimRepository,
+                                    FraudFeatureStore fraudFeatureStore,
+                                    HrLoadTracker hrLoadTracker,
+                                    ClaimDecisionDispatcher claimDecisionDispatcher,
+                                    ClaimSearchIndex claimSearchIndex,
+                                    ClaimStatsService claimStatsService,
+                                    NotificationService notificationService,
+                                    JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${claims.bulk-decision.max-size:1000}") int maxClaims) {
+        this.claimRepository = claimRepository;
+        this.fraudFeatureStore = fraudFeatureStore;
+        this.hrLoadTracker = hrLoadTracker;
+        this.claimDecisionDispatcher = claimDecisionDispatcher;
+        this.claimSearchIndex = claimSearchIndex;
+        this.claimStatsService = claimStatsService;
+        this.notificationService = notificationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxClaims = maxClaims;
+    }
+
+    /**
+     * Per-claim result: DECIDED, NOT_FOUND, SCORING (fraud checks still running, not decided),
+     * or ALREADY_DECIDED (status holds the current status).
+     */
+    public record Outcome(Long claimId, String result, String status) {}
+
+    public record BulkDecisionResult(int requested, int decided, List<Outcome> outcomes) {}
+
+    /**
+     * @param status "Approved" or "Rejected"
+     */
+    public BulkDecisionResult decide(Hr hr, List<Long> claimIds, String status, String remarks) {
+        if (claimIds == null || claimIds.isEmpty()) {
+            throw new IllegalArgumentException("No claim ids given");
+        }
+        Set<Long> ids = new LinkedHashSet<>(claimIds);
+        ids.remove(null);
+        if (ids.size() > maxClaims) {
+            throw new IllegalArgumentException("Too many claims: " + ids.size() + " (max " + maxClaims + ")");
+        }
+
+        Map<Long, Claim> claims = claimRepository.findByIdInWithDetails(ids).stream()
+                .collect(Collectors.toMap(Claim::getId, Function.identity()));
+
+        List<Claim> pending = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Claim claim = claims.get(id);
+            if (claim != null && "Pending".equals(claim.getStatus()) && !Claim.SCORING.equals(claim.getScoringState())) {
+                pending.add(claim);
+            }
+        }
+
+        // ---- One transaction: guarded updates, then emails, audit rows and notifications of the decided ----
+        LocalDateTime now = LocalDateTime.now();
+        List<Claim> decided = new ArrayList<>(pending.size());
+        if (!pending.isEmpty()) {
+            transactionTemplate.executeWithoutResult(tx -> {
+                List<Object[]> args = new ArrayList<>(pending.size());
+                for (Claim claim : pending) {
+                    args.add(new Object[] { status, remarks, Timestamp.valueOf(now), claim.getId() });
+                }
+                int[] counts = jdbcTemplate.batchUpdate(DECIDE_SQL, args);
+                for (int i = 0; i < pending.size(); i++) {
+                    if (counts[i] == 0) continue;     // decided by someone else since it was loaded
+                    Claim claim = pending.get(i);
+                    claim.setStatus(status);
+                    claim.setRemarks(remarks);
+                    claim.setUpdatedAt(now);
+                    if (claim.getEmployee().getEmail() != null) {
+                        notificationService.sendClaimStatusEmail(claim.getEmployee().getEmail(), claim);
+                    }
+                    decided.add(claim);
+                }
+                claimDecisionDispatcher.record(hr, decided);
+            });
+        }
+
+        // ---- Post-commit: in-memory state and indexes ----
+        for (Claim claim : decided) {
+            fraudFeatureStore.record(claim);
+            ClaimStatsService.ClaimView after = ClaimStatsService.ClaimView.of(claim);
+            claimStatsService.changed(after.withStatus("Pending"), after);
+            if (claim.getAssignedHr() != null) {
+                hrLoadTracker.release(claim.getAssignedHr().getId());
+            }
+        }
+        claimSearchIndex.indexAll(decided);
+
+        Set<Long> decidedIds = decided.stream().map(Claim::getId).collect(Collectors.toSet());
+
+        // Claims that were Pending when loaded but lost the race: one query for what they became
+        List<Long> lostRace = ids.stream()
+                .filter(id -> claims.containsKey(id) && !decidedIds.contains(id)
+                        && "Pending".equals(claims.get(id).getStatus())
+                        && !Claim.SCORING.equals(claims.get(id).getScoringState()))
+                .toList();
+        Map<Long, String> currentStatus = new HashMap<>();
+        if (!lostRace.isEmpty()) {
+            for (Object[] row : claimRepository.findStatusesByIdIn(lostRace)) {
+                currentStatus.put((Long) row[0], (String) row[1]);
+            }
+        }
+
+        List<Outcome> outcomes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Claim claim = claims.get(id);
+            if (claim == null) {
+                outcomes.add(new Outcome(id, "NOT_FOUND", null));
+            } else if (Claim.SCORING.equals(claim.getScoringState())) {
+                outcomes.add(new Outcome(id, "SCORING", claim.getStatus()));
+            } else if (decidedIds.contains(id)) {
+                outcomes.add(new Outcome(id, "DECIDED", status));
+            } else {
+                String current = "Pending".equals(claim.getStatus()) ? currentStatus.get(id) : claim.getStatus();
+                outcomes.add(new Outcome(id, "ALREADY_DECIDED", current));
+            }
+        }
+        return new BulkDecisionResult(ids.size(), decided.size(), outcomes);
+    }
+}
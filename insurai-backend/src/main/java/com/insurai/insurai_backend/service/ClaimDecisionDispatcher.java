@@ -0,0 +1,71 @@
+package com.insurai.insurai_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.insurai.insurai_backend.model.AuditLog;
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.model.Hr;
+import com.insurai.insurai_backend.model.Notification;
+
+/**
+ * Records of bulk claim decisions.
+ *
+ * The audit rows and the in-app notifications of one bulk decision are saved with
+ * one repository call each, in the transaction that decided the claims, so they
+ * exist exactly when the decisions do (like the single approve/reject path, and
+ * like the status emails the same transaction queues in the outbox). Pushing the
+ * notifications to connected clients still waits for the commit.
+ */
+@Service
+public class ClaimDecisionDispatcher {
+
+    private final AuditLogService auditLogService;
+    private final InAppNotificationService inAppNotificationService;
+
+    public ClaimDecisionDispatcher(AuditLogService auditLogService,
+                                   InAppNotificationService inAppNotificationService) {
+        this.auditLogService = auditLogService;
+        this.inAppNotificationService = inAppNotificationService;
+    }
+
+    /**
+     * Save the audit records and employee notifications for claims an HR just decided.
+     * Call inside the transaction that decided them; a failure rolls the decisions back.
+     *
+     * @param claims decided claims with employee, policy and assigned HR loaded
+     */
+    public void record(Hr hr, List<Claim> claims) {
+        if (claims.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        List<AuditLog> logs = new ArrayList<>(claims.size());
+        List<Notification> notifications = new ArrayList<>(claims.size());
+
+        for (Claim claim : claims) {
+            boolean approved = "Approved".equals(claim.getStatus());
+
+            AuditLog log = new AuditLog();
+            log.setUserId(hr.getId().toString());
+            log.setUserName(hr.getName());
+            log.setRole("HR");
+            log.setAction(approved ? "CLAIM_APPROVE" : "CLAIM_REJECT");
+            log.setDetails((approved ? "Approved" : "Rejected") + " claim ID: " + claim.getId() + " (bulk)");
+            log.setTimestamp(now);
+            logs.add(log);
+
+            Notification notification = new Notification();
+            notification.setTitle(approved ? "Claim Approved" : "Claim Rejected");
+            notification.setMessage("Your claim #" + claim.getId() + " has been " + (approved ? "approved." : "rejected."));
+            notification.setTargetId(claim.getEmployee().getId());
+            notification.setTargetRole("EMPLOYEE");
+            notification.setNotificationType("CLAIM");
+            notifications.add(notification);
+        }
+
+        auditLogService.logActions(logs);
+        inAppNotificationService.createNotifications(notifications);
+    }
+}
@@ -0,0 +1,178 @@
+package com.insurai.insurai_backend.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Streams claims straight from a forward-only database cursor to an output stream.
+ *
+ * Rows are read through a Hibernate {@link StatelessSession} (no persistence context,
+ * nothing accumulates) with MySQL row streaming, and each row is written out as soon
+ * as it is read, so memory stays flat however many claims are exported.
+ */
+@Service
+public class ClaimExportService {
+
+    private static final String[] COLUMNS = {
+            "id", "title", "amount", "status", "claimDate", "createdAt", "updatedAt",
+            "employeeId", "employeeName", "policyId", "policyName", "assignedHrId", "assignedHrName",
+            "fraudFlag", "fraudReason", "scoringState", "remarks"
+    };
+
+    private static final String SELECT = "SELECT c.id, c.title, c.amount, c.status, c.claimDate, c.createdAt, c.updatedAt,"
+            + " e.id, e.name, p.id, p.policyName, h.id, h.name, c.fraudFlag, c.fraudReason, c.scoringState, c.remarks"
+            + " FROM Claim c JOIN c.employee e JOIN c.policy p LEFT JOIN c.assignedHr h"
+            + " WHERE (:status IS NULL OR c.status = :status)"
+            + " AND (:from IS NULL OR c.createdAt >= :from)"
+            + " AND (:to IS NULL OR c.createdAt < :to)"
+            + " ORDER BY c.id";
+
+    // Flush to the client every this many rows
+    private static final int FLUSH_EVERY = 1000;
+
+    // Connector/J streams rows one by one only with this fetch size
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final SessionFactory sessionFactory;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ClaimExportService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public enum Format { CSV, NDJSON }
+
+    /**
+     * Write all matching claims, ordered by id.
+     *
+     * @param from   first createdAt day included (null = no lower bound)
+     * @param to     last createdAt day included (null = no upper bound)
+     * @param status claim status (null = any)
+     * @return number of rows written
+     */
+    public long export(OutputStream out, Format format, boolean gzip,
+                       LocalDate from, LocalDate to, String status) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        long rows = 0;
+
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Query<Object[]> query = session.createQuery(SELECT, Object[].class)
+                    .setParameter("status", status)
+                    .setParameter("from", from != null ? from.atStartOfDay() : null, LocalDateTime.class)
+                    .setParameter("to", to != null ? to.plusDays(1).atStartOfDay() : null, LocalDateTime.class)
+                    .setFetchSize(MYSQL_STREAMING_FETCH_SIZE)
+                    .setReadOnly(true);
+
+            try (ScrollableResults<Object[]> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                rows = format == Format.CSV ? writeCsv(results, target) : writeNdjson(results, target);
+            }
+        }
+
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+        out.flush();
+        return rows;
+    }
+
+    // ------------------ CSV ------------------
+
+    private long writeCsv(ScrollableResults<Object[]> results, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+
+        long rows = 0;
+        while (results.next()) {
+            Object[] row = results.get();
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) writer.write(',');
+                writeCsvValue(writer, row[i]);
+            }
+            writer.write("\r\n");
+            if (++rows % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) return;
+        String text = value.toString();
+        // Text a spreadsheet would run as a formula (title, remarks, fraud reason and the names are user-entered)
+        boolean formula = value instanceof String && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0;
+        if (formula) {
+            text = "'" + text;
+        }
+        boolean quote = formula || text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // ------------------ NDJSON ------------------
+
+    private long writeNdjson(ScrollableResults<Object[]> results, OutputStream out) throws IOException {
+        long rows = 0;
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+
+            while (results.next()) {
+                Object[] row = results.get();
+                json.writeStartObject();
+                for (int i = 0; i < row.length; i++) {
+                    json.writeFieldName(COLUMNS[i]);
+                    writeJsonValue(json, row[i]);
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+                if (++rows % FLUSH_EVERY == 0) {
+                    json.flush();
+                }
+            }
+            json.flush();
+        }
+        return rows;
+    }
+
+    private static void writeJsonValue(JsonGenerator json, Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof Long l) {
+            json.writeNumber(l);
+        } else if (value instanceof Double d) {
+            json.writeNumber(d);
+        } else if (value instanceof Boolean b) {
+            json.writeBoolean(b);
+        } else {
+            json.writeString(value.toString()); // strings and ISO-8601 timestamps
+        }
+    }
+}
@@ -1,28 +1,52 @@
 package com.insurai.insurai_backend.service;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.insurai.insurai_backend.dto.ClaimFilter;
+import com.insurai.insurai_backend.dto.ClaimRow;
+import com.insurai.insurai_backend.dto.CursorPage;
+import com.insurai.insurai_backend.exception.ClaimConflictException;
 import com.insurai.insurai_backend.model.Claim;
 import com.insurai.insurai_backend.model.Employee;
 import com.insurai.insurai_backend.model.Hr;
+import com.insurai.insurai_backend.model.NotificationMode;
 import com.insurai.insurai_backend.repository.ClaimRepository;
+import com.insurai.insurai_backend.service.fraud.DocumentFingerprintIndex;
+import com.insurai.insurai_backend.service.fraud.DuplicateClaimIndex;
+import com.insurai.insurai_backend.service.fraud.EmployeeFraudProfile;
+import com.insurai.insurai_backend.service.fraud.FraudFeatureStore;
+import com.insurai.insurai_backend.service.fraud.FraudRingIndex;
+import com.insurai.insurai_backend.service.search.ClaimSearchIndex;
+import com.insurai.insurai_backend.util.ClaimCursor;
 
 @Service
 public class ClaimService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DOCUMENT_BATCH_SIZE = 1000;
+
     @Autowired
     private ClaimRepository claimRepository;
 
     @Autowired
-    private HrService hrService;
+    private NotificationService notificationService;
 
     @Autowired
-    private NotificationService notificationService;
+    private HrDigestService hrDigestService;
 
     @Autowired
     private FraudService fraudService;
@@ -30,8 +54,46 @@ public class ClaimService {
     @Autowired
     private InAppNotificationService inAppNotificationService; // ✅ Added InAppNotificationService
 
+    @Autowired
+    private FraudFeatureStore fraudFeatureStore;
+
+    @Autowired
+    private DocumentFingerprintIndex documentFingerprintIndex;
+
+    @Autowired
+    private DuplicateClaimIndex duplicateClaimIndex;
+
+    @Autowired
+    private FraudRingIndex fraudRingIndex;
+
+    @Autowired
+    private HrLoadTracker hrLoadTracker;
+
+    @Autowired
+    private ClaimSearchIndex claimSearchIndex;
+
+    @Autowired
+    private ClaimStatsService claimStatsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    @Qualifier("fraudScoringExecutor")
+    private Executor fraudScoringExecutor;
+
+    @Value("${fraud.async.enabled:false}")
+    private boolean asyncFraudScoring;
+
     /**
-     * Submit a new claim with automatic HR assignment
+     * Submit a new claim with automatic HR assignment.
+     *
+     * With {@code fraud.async.enabled} the claim is saved straight away in the "Scoring"
+     * sub-state and fraud detection plus the submission notifications run on the
+     * fraud scoring pool; otherwise everything happens on the request thread.
      */
     public Claim submitClaim(Claim claim) throws Exception {
         if (claim.getAmount() > claim.getPolicy().getCoverageAmount()) {
@@ -45,12 +107,71 @@ public class ClaimService {
         if (claim.getClaimDate() == null) {
             claim.setClaimDate(LocalDateTime.now());
         }
+        claim.setDuplicateKey(DuplicateClaimIndex.keyFor(claim));
+
+        boolean scoreLater = asyncFraudScoring && claim.getEmployee() != null && claim.getPolicy() != null;
 
         // Fraud detection
+        boolean duplicate = false;
+        if (scoreLater) {
+            // Reserve the duplicate key now so double submits are still caught deterministically
+            duplicate = fraudService.reserveDuplicateKey(claim);
+            claim.setFraudFlag(false);
+            claim.setFraudReason(null);
+            claim.setScoringState(Claim.SCORING);
+        } else {
+            runFraudDetection(claim);
+            claim.setScoringState(Claim.SCORED);
+        }
+
+        // Automatic HR assignment (weighted, capacity and policy-type aware, in memory)
+        Hr selectedHr = hrLoadTracker.assign(claim);
+        if (selectedHr != null) {
+            claim.setAssignedHr(selectedHr);
+        }
+
+        // Save claim (a failed insert must not keep its duplicate key reserved or count against the HR)
+        Claim savedClaim;
+        try {
+            // The claim and its emails commit together; with async scoring the emails wait for the score
+            savedClaim = transactionTemplate.execute(tx -> {
+                Claim saved = claimRepository.save(claim);
+                idempotencyService.recordResource(saved.getId());
+                if (!scoreLater) {
+                    queueSubmissionEmails(saved, selectedHr);
+                }
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            duplicateClaimIndex.release(claim);
+            if (selectedHr != null) {
+                hrLoadTracker.release(selectedHr.getId());
+            }
+            throw e;
+        }
+        claimSearchIndex.index(savedClaim);
+        claimStatsService.created(savedClaim);
+
+        if (scoreLater) {
+            Map<String, String> fingerprints = claim.getDocumentFingerprints();
+            boolean knownDuplicate = duplicate;
+            Hr assignedHr = selectedHr;
+            fraudScoringExecutor.execute(() -> completeScoring(savedClaim, fingerprints, knownDuplicate, assignedHr));
+            return savedClaim;
+        }
+
+        fraudFeatureStore.record(savedClaim);
+        documentFingerprintIndex.register(claim); // fingerprints are transient, keep the original instance
+        fraudRingIndex.onClaimSaved(claim);
+        notifySubmission(savedClaim, selectedHr);
+
+        return savedClaim;
+    }
+
+    private void runFraudDetection(Claim claim) {
         try {
             if (claim.getEmployee() != null && claim.getPolicy() != null) {
-                List<Claim> employeeClaims = claimRepository.findByEmployee(claim.getEmployee());
-                fraudService.runFraudDetection(claim, employeeClaims);
+                fraudService.runFraudDetection(claim, fraudFeatureStore.profileFor(claim.getEmployee().getId()));
             } else {
                 claim.setFraudFlag(false);
                 claim.setFraudReason(null);
@@ -60,27 +181,87 @@ public class ClaimService {
             claim.setFraudFlag(false);
             claim.setFraudReason(null);
         }
+    }
 
-        // Automatic HR assignment
-        List<Hr> activeHrs = hrService.getAllActiveHrs();
-        Hr selectedHr = null;
-        if (!activeHrs.isEmpty()) {
-            selectedHr = activeHrs.stream()
-                    .min(Comparator.comparingInt(this::getPendingClaimCount))
-                    .orElse(null);
-            claim.setAssignedHr(selectedHr);
+    /**
+     * Fraud scoring stage for a claim saved in the "Scoring" sub-state (runs on the scoring pool).
+     * Claims cannot be decided while in "Scoring"; the in-memory indexes are updated from
+     * the committed row, since the employee may have edited the claim in the meantime.
+     */
+    private void completeScoring(Claim claim, Map<String, String> fingerprints, boolean knownDuplicate, Hr selectedHr) {
+        try {
+            claim.setDocumentFingerprints(fingerprints);
+            try {
+                // The claim is already stored, so make sure the profile does not count it against itself
+                EmployeeFraudProfile profile = fraudFeatureStore.profileFor(claim.getEmployee().getId());
+                profile.forget(claim.getId());
+                fraudService.runFraudDetection(claim, profile, knownDuplicate);
+            } catch (Exception e) {
+                System.err.println("⚠️ Fraud detection failed for claim #" + claim.getId() + ": " + e.getMessage());
+                claim.setFraudFlag(false);
+                claim.setFraudReason(null);
+            }
+
+            claim.setScoringState(Claim.SCORED);
+            Claim scored = transactionTemplate.execute(tx -> {
+                claimRepository.updateFraudResult(claim.getId(), claim.isFraud(), claim.getFraudReason(), Claim.SCORED);
+                Claim committed = claimRepository.findByIdInWithDetails(List.of(claim.getId())).stream()
+                        .findFirst().orElse(claim);
+                queueSubmissionEmails(committed, selectedHr);
+                return committed;
+            });
+            claimSearchIndex.index(scored);
+            if (scored.isFraud()) {
+                hrLoadTracker.flaggedAfterAssignment(scored);
+            }
+            ClaimStatsService.ClaimView after = ClaimStatsService.ClaimView.of(scored);
+            claimStatsService.changed(after.withFraud(false), after);
+            fraudFeatureStore.record(scored);
+            scored.setDocumentFingerprints(fingerprints);
+            documentFingerprintIndex.register(scored);
+            fraudRingIndex.onClaimSaved(scored);
+
+            notifySubmission(scored, selectedHr);
+        } catch (Exception e) {
+            // Left in "Scoring"; picked up again at the next startup
+            System.err.println("❌ Fraud scoring stage failed for claim #" + claim.getId() + ": " + e.getMessage());
         }
+    }
 
-        // Save claim
-        Claim savedClaim = claimRepository.save(claim);
+    /**
+     * Re-queue claims left in the "Scoring" sub-state by a restart. Their upload
+     * fingerprints were only held in memory, so these are scored without the
+     * reused-document check.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingScoring() {
+        List<Claim> pending = claimRepository.findByScoringStateWithDetails(Claim.SCORING);
+        for (Claim claim : pending) {
+            // Only an earlier claim with the same key makes this one a duplicate
+            boolean duplicate = claim.getDuplicateKey() != null
+                    && claimRepository.existsByDuplicateKeyAndIdLessThan(claim.getDuplicateKey(), claim.getId());
+            fraudScoringExecutor.execute(() -> completeScoring(claim, null, duplicate, claim.getAssignedHr()));
+        }
+        if (!pending.isEmpty()) {
+            System.out.println("🔁 Re-queued " + pending.size() + " claims for fraud scoring");
+        }
+    }
 
-        // Send email notification to employee
-        try {
+    // Submission emails to the employee and the assigned HR; call in the transaction that stores the claim
+    private void queueSubmissionEmails(Claim savedClaim, Hr selectedHr) {
+        if (savedClaim.getEmployee().getEmail() != null) {
             notificationService.sendClaimStatusEmail(savedClaim.getEmployee().getEmail(), savedClaim);
-        } catch (Exception e) {
-            System.err.println("⚠️ Failed to send claim submission email to employee: " + e.getMessage());
         }
+        if (selectedHr != null && selectedHr.getEmail() != null) {
+            if (selectedHr.getNotificationMode() == NotificationMode.DIGEST) {
+                hrDigestService.add(selectedHr, savedClaim);
+            } else {
+                notificationService.sendNewClaimAssignedToHr(selectedHr.getEmail(), selectedHr, savedClaim);
+            }
+        }
+    }
 
+    private void notifySubmission(Claim savedClaim, Hr selectedHr) {
         // Send in-app notification to employee
         inAppNotificationService.createNotification(
                 "Claim Submitted",
@@ -90,15 +271,6 @@ public class ClaimService {
                 "CLAIM"
         );
 
-        // Send email notification to assigned HR
-        if (selectedHr != null && selectedHr.getEmail() != null) {
-            try {
-                notificationService.sendNewClaimAssignedToHr(selectedHr.getEmail(), selectedHr, savedClaim);
-            } catch (Exception e) {
-                System.err.println("⚠️ Failed to send claim assignment email to HR: " + e.getMessage());
-            }
-        }
-
         // Send in-app notification to assigned HR
         if (selectedHr != null) {
             inAppNotificationService.createNotification(
@@ -109,12 +281,6 @@ public class ClaimService {
                     "CLAIM"
             );
         }
-
-        return savedClaim;
-    }
-
-    private int getPendingClaimCount(Hr hr) {
-        return claimRepository.countByAssignedHrAndStatus(hr, "Pending");
     }
 
     public List<Claim> getClaimsByEmployee(Employee employee) {
@@ -125,30 +291,101 @@ public class ClaimService {
         return claimRepository.findByEmployee_EmployeeId(employeeId);
     }
 
-    public List<Claim> getAllClaims() {
-        return claimRepository.findAll();
+    /**
+     * All claims matching the filter as list rows, newest first.
+     * Two statements per 1000 claims, independent of how many associations the rows show.
+     */
+    public List<ClaimRow> getClaimRows(ClaimFilter filter) {
+        List<ClaimRow> rows = claimRepository.findRows(filter.employeeId(), filter.assignedHrId(), filter.status(),
+                filter.fraud(), filter.policyId());
+        attachDocuments(rows);
+        return rows;
     }
 
     /**
-     * Approve a claim and send professional email + in-app notification
+     * One page of claims, newest first, continuing after {@code cursor} (null for the first page).
+     * Each page is a bounded index range scan, however deep the caller has scrolled.
      */
-    public Claim approveClaim(Long claimId, String remarks) throws Exception {
-        Claim claim = claimRepository.findByIdWithEmployee(claimId)
-                .orElseThrow(() -> new Exception("Claim not found"));
+    public CursorPage<ClaimRow> getClaimPage(ClaimFilter filter, String cursor, int size, boolean includeTotal) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest limit = PageRequest.of(0, pageSize + 1); // one extra row tells if there is a next page
+
+        List<ClaimRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = claimRepository.findFirstPage(filter.employeeId(), filter.assignedHrId(), filter.status(),
+                    filter.fraud(), filter.policyId(), limit);
+        } else {
+            ClaimCursor after = ClaimCursor.decode(cursor);
+            rows = claimRepository.findPageAfter(filter.employeeId(), filter.assignedHrId(), filter.status(),
+                    filter.fraud(), filter.policyId(), after.createdAt(), after.id(), limit);
+        }
 
-        claim.setStatus("Approved");
-        claim.setRemarks(remarks);
-        claim.setUpdatedAt(LocalDateTime.now());
-        Claim updatedClaim = claimRepository.save(claim);
+        boolean hasMore = rows.size() > pageSize;
+        List<ClaimRow> items = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        attachDocuments(items);
 
-        // Email notification
-        if (updatedClaim.getEmployee() != null && updatedClaim.getEmployee().getEmail() != null) {
-            try {
-                notificationService.sendClaimStatusEmail(updatedClaim.getEmployee().getEmail(), updatedClaim);
-            } catch (Exception e) {
-                System.err.println("⚠️ Failed to send claim approval email: " + e.getMessage());
+        String nextCursor = null;
+        if (hasMore) {
+            ClaimRow last = items.get(items.size() - 1);
+            nextCursor = new ClaimCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        Long total = includeTotal
+                ? claimRepository.countFiltered(filter.employeeId(), filter.assignedHrId(), filter.status(),
+                        filter.fraud(), filter.policyId())
+                : null;
+        return new CursorPage<>(items, nextCursor, hasMore, total);
+    }
+
+    /**
+     * Full-text search over claim title, description, remarks and fraud reason, best match first.
+     */
+    public ClaimSearchPage searchClaims(String query, String status, Long assignedHrId, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        ClaimSearchIndex.SearchResult result = claimSearchIndex.search(query, status, assignedHrId, limit);
+
+        List<Long> ids = result.hits().stream().map(ClaimSearchIndex.Hit::claimId).toList();
+        Map<Long, ClaimRow> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (ClaimRow row : claimRepository.findRowsByIds(ids)) {
+                byId.put(row.getId(), row);
+            }
+        }
+        List<ClaimRow> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ClaimRow row = byId.get(id);
+            if (row != null) rows.add(row);
+        }
+        attachDocuments(rows);
+        return new ClaimSearchPage(rows, result.totalMatches(), result.indexReady());
+    }
+
+    public record ClaimSearchPage(List<ClaimRow> rows, int totalMatches, boolean indexReady) {}
+
+    // One IN query per DOCUMENT_BATCH_SIZE rows instead of one collection load per claim
+    private void attachDocuments(List<ClaimRow> rows) {
+        for (int from = 0; from < rows.size(); from += DOCUMENT_BATCH_SIZE) {
+            List<ClaimRow> batch = rows.subList(from, Math.min(rows.size(), from + DOCUMENT_BATCH_SIZE));
+            Map<Long, ClaimRow> byId = new HashMap<>();
+            for (ClaimRow row : batch) {
+                byId.put(row.getId(), row);
+            }
+            Map<Long, List<String>> documents = new HashMap<>();
+            for (Object[] doc : claimRepository.findDocumentsByClaimIds(byId.keySet())) {
+                documents.computeIfAbsent((Long) doc[0], id -> new ArrayList<>()).add((String) doc[1]);
             }
+            documents.forEach((id, paths) -> byId.get(id).setDocuments(paths));
         }
+    }
+
+    public List<Claim> getAllClaims() {
+        return claimRepository.findAll();
+    }
+
+    /**
+     * Approve a claim and send professional email + in-app notification
+     */
+    public Claim approveClaim(Long claimId, String remarks) throws Exception {
+        Claim updatedClaim = decidePending(claimId, "Approved", remarks);
 
         // In-app notification
         inAppNotificationService.createClaimApprovedNotification(updatedClaim);
@@ -160,22 +397,7 @@ public class ClaimService {
      * Reject a claim and send professional email + in-app notification
      */
     public Claim rejectClaim(Long claimId, String remarks) throws Exception {
-        Claim claim = claimRepository.findByIdWithEmployee(claimId)
-                .orElseThrow(() -> new Exception("Claim not found"));
-
-        claim.setStatus("Rejected");
-        claim.setRemarks(remarks);
-        claim.setUpdatedAt(LocalDateTime.now());
-        Claim updatedClaim = claimRepository.save(claim);
-
-        // Email notification
-        if (updatedClaim.getEmployee() != null && updatedClaim.getEmployee().getEmail() != null) {
-            try {
-                notificationService.sendClaimStatusEmail(updatedClaim.getEmployee().getEmail(), updatedClaim);
-            } catch (Exception e) {
-                System.err.println("⚠️ Failed to send claim rejection email: " + e.getMessage());
-            }
-        }
+        Claim updatedClaim = decidePending(claimId, "Rejected", remarks);
 
         // In-app notification
         inAppNotificationService.createClaimRejectedNotification(updatedClaim);
@@ -183,6 +405,55 @@ public class ClaimService {
         return updatedClaim;
     }
 
+    /**
+     * Move a Pending claim to its final status with one guarded UPDATE, so two HRs
+     * deciding the same claim cannot overwrite each other: the second one gets a
+     * {@link ClaimConflictException} instead. The status email is queued in the same
+     * transaction as the update.
+     *
+     * Two round trips: a read-only load (the email and the response need the employee
+     * and policy, and MySQL has no UPDATE ... RETURNING), then the guarded UPDATE. The
+     * result is that snapshot with the update's values applied; a lost race is
+     * explained from the snapshot without another query.
+     */
+    private Claim decidePending(Long claimId, String status, String remarks) throws Exception {
+        Claim claim = transactionTemplate.execute(tx -> {
+            Claim snapshot = claimRepository.findByIdInWithDetails(List.of(claimId)).stream().findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Claim not found"));
+            if (!"Pending".equals(snapshot.getStatus())) {
+                throw new ClaimConflictException("Claim #" + claimId + " is already " + snapshot.getStatus());
+            }
+            if (Claim.SCORING.equals(snapshot.getScoringState())) {
+                throw new ClaimConflictException("Claim #" + claimId + " is still being checked for fraud; try again shortly");
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            if (claimRepository.decidePending(claimId, status, remarks, now) == 0) {
+                throw new ClaimConflictException("Claim #" + claimId + " was just decided by someone else");
+            }
+
+            // Read-only entity: these changes are never flushed
+            snapshot.setStatus(status);
+            snapshot.setRemarks(remarks);
+            snapshot.setUpdatedAt(now);
+            if (snapshot.getVersion() != null) {
+                snapshot.setVersion(snapshot.getVersion() + 1);
+            }
+            if (snapshot.getEmployee().getEmail() != null) {
+                notificationService.sendClaimStatusEmail(snapshot.getEmployee().getEmail(), snapshot);
+            }
+            return snapshot;
+        });
+        fraudFeatureStore.record(claim);
+        claimSearchIndex.index(claim);
+        ClaimStatsService.ClaimView decided = ClaimStatsService.ClaimView.of(claim);
+        claimStatsService.changed(decided.withStatus("Pending"), decided);
+        if (claim.getAssignedHr() != null) {
+            hrLoadTracker.release(claim.getAssignedHr().getId());
+        }
+        return claim;
+    }
+
     public List<Claim> getClaimsByStatus(String status) {
         return claimRepository.findByStatus(status);
     }
@@ -208,8 +479,32 @@ public class ClaimService {
             throw new Exception("Claim amount exceeds policy coverage!");
         }
 
+        // Edits can change policy, amount or date; the old key must stop blocking new claims
+        String previousKey = claim.getDuplicateKey();
+        claim.setDuplicateKey(DuplicateClaimIndex.keyFor(claim));
+        if (previousKey != null && !previousKey.equals(claim.getDuplicateKey())) {
+            duplicateClaimIndex.release(previousKey);
+        }
+
+        // The entity is already edited in memory, so the counters' "before" comes from the table
+        List<Object[]> stored = claimRepository.findStatsFieldsById(claim.getId());
+
         claim.setUpdatedAt(LocalDateTime.now());
-        return claimRepository.save(claim);
+        Claim updatedClaim = transactionTemplate.execute(tx -> {
+            Claim saved = claimRepository.save(claim);
+            idempotencyService.recordResource(saved.getId());
+            return saved;
+        });
+        if (!stored.isEmpty()) {
+            Object[] row = stored.get(0);
+            claimStatsService.changed(new ClaimStatsService.ClaimView((String) row[0], (Long) row[1], (Long) row[2],
+                    (String) row[3], (Boolean) row[4], (Double) row[5]), ClaimStatsService.ClaimView.of(updatedClaim));
+        }
+        fraudFeatureStore.record(updatedClaim);
+        documentFingerprintIndex.register(claim);
+        fraudRingIndex.onClaimSaved(claim);
+        claimSearchIndex.index(updatedClaim);
+        return updatedClaim;
     }
 
     public List<Claim> getAllClaimsForAdmin() {
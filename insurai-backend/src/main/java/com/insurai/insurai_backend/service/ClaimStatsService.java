@@ -0,0 +1,240 @@
+package com.insurai.insurai_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+
+/**
+ * Claim counters for the dashboards, kept in memory.
+ *
+ * Every claim adds to one bucket per dimension (status, assigned HR, HR and status,
+ * policy, policy type, fraud flag, plus the overall total); each bucket holds a
+ * count, an amount sum in paise and a fraud count as {@link LongAdder}s, so
+ * concurrent updates do not contend. {@link ClaimService} and the bulk paths report
+ * creations and changes as (before, after) views of the claim.
+ *
+ * The counters are rebuilt from one grouped query at startup and every
+ * {@code claims.stats.reconcile-interval-ms}. Changes that commit while that query
+ * runs may be counted twice or missed until the next reconciliation.
+ */
+@Service
+public class ClaimStatsService {
+
+    private final ClaimRepository claimRepository;
+
+    private volatile Map<Key, Bucket> buckets = new ConcurrentHashMap<>();
+    private volatile LocalDateTime reconciledAt;
+    private volatile long lastDrift;
+
+    public ClaimStatsService(ClaimRepository claimRepository) {
+        this.claimRepository = claimRepository;
+    }
+
+    public enum Dimension { TOTAL, STATUS, HR, HR_STATUS, POLICY, POLICY_TYPE, FRAUD }
+
+    /**
+     * The fields of a claim the counters depend on.
+     */
+    public record ClaimView(String status, Long hrId, Long policyId, String policyType, boolean fraud, Double amount) {
+
+        public static ClaimView of(Claim claim) {
+            return new ClaimView(claim.getStatus(),
+                    claim.getAssignedHr() != null ? claim.getAssignedHr().getId() : null,
+                    claim.getPolicy() != null ? claim.getPolicy().getId() : null,
+                    claim.getPolicy() != null ? claim.getPolicy().getPolicyType() : null,
+                    claim.isFraud(),
+                    claim.getAmount());
+        }
+
+        public ClaimView withStatus(String status) {
+            return new ClaimView(status, hrId, policyId, policyType, fraud, amount);
+        }
+
+        public ClaimView withFraud(boolean fraud) {
+            return new ClaimView(status, hrId, policyId, policyType, fraud, amount);
+        }
+    }
+
+    public record Totals(long count, double amount, long fraudCount) {}
+
+    public record ClaimStats(Totals total,
+                             Map<String, Totals> byStatus,
+                             Map<String, Totals> byHr,
+                             Map<String, Totals> byPolicy,
+                             Map<String, Totals> byPolicyType,
+                             Map<String, Totals> byFraud,
+                             LocalDateTime reconciledAt,
+                             long driftAtLastReconcile) {}
+
+    // ------------------ Lifecycle events ------------------
+
+    public void created(Claim claim) {
+        add(buckets, ClaimView.of(claim), 1);
+    }
+
+    public void created(List<Claim> claims) {
+        Map<Key, Bucket> target = buckets;
+        for (Claim claim : claims) {
+            add(target, ClaimView.of(claim), 1);
+        }
+    }
+
+    /**
+     * A claim moved from {@code before} to {@code after} (status, fraud result, amount, policy, ...).
+     */
+    public void changed(ClaimView before, ClaimView after) {
+        if (before.equals(after)) return;
+        Map<Key, Bucket> target = buckets;
+        add(target, before, -1);
+        add(target, after, 1);
+    }
+
+    // sign = +1 to count the claim, -1 to take it out
+    private static void add(Map<Key, Bucket> target, ClaimView view, int sign) {
+        long amountPaise = view.amount() != null ? Math.round(view.amount() * 100) : 0;
+        add(target, view, sign, sign * amountPaise);
+    }
+
+    private static void add(Map<Key, Bucket> target, ClaimView view, long count, long amountPaise) {
+        for (Key key : keysOf(view)) {
+            Bucket bucket = target.computeIfAbsent(key, k -> new Bucket());
+            bucket.count.add(count);
+            bucket.amountPaise.add(amountPaise);
+            if (view.fraud()) {
+                bucket.fraud.add(count);
+            }
+        }
+    }
+
+    private static List<Key> keysOf(ClaimView view) {
+        List<Key> keys = new ArrayList<>(7);
+        keys.add(new Key(Dimension.TOTAL, ""));
+        keys.add(new Key(Dimension.STATUS, String.valueOf(view.status())));
+        keys.add(new Key(Dimension.FRAUD, String.valueOf(view.fraud())));
+        if (view.hrId() != null) {
+            keys.add(new Key(Dimension.HR, view.hrId().toString()));
+            keys.add(new Key(Dimension.HR_STATUS, view.hrId() + "|" + view.status()));
+        }
+        if (view.policyId() != null) {
+            keys.add(new Key(Dimension.POLICY, view.policyId().toString()));
+        }
+        if (view.policyType() != null) {
+            keys.add(new Key(Dimension.POLICY_TYPE, view.policyType()));
+        }
+        return keys;
+    }
+
+    // ------------------ Reads ------------------
+
+    /**
+     * All counters; cost depends on the number of buckets, not on the number of claims.
+     */
+    public ClaimStats stats() {
+        Map<Dimension, Map<String, Totals>> byDimension = new TreeMap<>();
+        for (Map.Entry<Key, Bucket> entry : buckets.entrySet()) {
+            Totals totals = entry.getValue().totals();
+            if (totals.count() == 0) continue;
+            byDimension.computeIfAbsent(entry.getKey().dimension(), d -> new TreeMap<>())
+                    .put(entry.getKey().value(), totals);
+        }
+        Totals total = byDimension.getOrDefault(Dimension.TOTAL, Map.of()).getOrDefault("", new Totals(0, 0, 0));
+        return new ClaimStats(total,
+                byDimension.getOrDefault(Dimension.STATUS, Map.of()),
+                byDimension.getOrDefault(Dimension.HR, Map.of()),
+                byDimension.getOrDefault(Dimension.POLICY, Map.of()),
+                byDimension.getOrDefault(Dimension.POLICY_TYPE, Map.of()),
+                byDimension.getOrDefault(Dimension.FRAUD, Map.of()),
+                reconciledAt,
+                lastDrift);
+    }
+
+    /**
+     * Counters for one HR's claims, by status.
+     */
+    public Map<String, Totals> statsForHr(Long hrId) {
+        String prefix = hrId + "|";
+        Map<String, Totals> byStatus = new TreeMap<>();
+        for (Map.Entry<Key, Bucket> entry : buckets.entrySet()) {
+            Key key = entry.getKey();
+            if (key.dimension() == Dimension.HR_STATUS && key.value().startsWith(prefix)) {
+                Totals totals = entry.getValue().totals();
+                if (totals.count() > 0) {
+                    byStatus.put(key.value().substring(prefix.length()), totals);
+                }
+            }
+        }
+        return byStatus;
+    }
+
+    // ------------------ Reconciliation ------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    /**
+     * Rebuild every counter from the database and swap them in.
+     */
+    @Scheduled(initialDelayString = "${claims.stats.reconcile-interval-ms:600000}",
+               fixedDelayString = "${claims.stats.reconcile-interval-ms:600000}")
+    public synchronized void reconcile() {
+        try {
+            Map<Key, Bucket> fresh = new ConcurrentHashMap<>();
+            // [status, hrId, policyId, policyType, fraudFlag, count, amountSum]
+            for (Object[] row : claimRepository.aggregateForStats()) {
+                ClaimView view = new ClaimView((String) row[0], (Long) row[1], (Long) row[2], (String) row[3],
+                        (Boolean) row[4], null);
+                long amountPaise = row[6] != null ? Math.round(((Number) row[6]).doubleValue() * 100) : 0;
+                add(fresh, view, (Long) row[5], amountPaise);
+            }
+
+            // Claims the live counters had in the wrong status (0 when nothing was missed)
+            long drift = 0;
+            Map<Key, Bucket> current = buckets;
+            for (Map.Entry<Key, Bucket> entry : fresh.entrySet()) {
+                if (entry.getKey().dimension() != Dimension.STATUS) continue;
+                Bucket old = current.get(entry.getKey());
+                drift += Math.abs(entry.getValue().count.sum() - (old != null ? old.count.sum() : 0));
+            }
+            for (Map.Entry<Key, Bucket> entry : current.entrySet()) {
+                if (entry.getKey().dimension() == Dimension.STATUS && !fresh.containsKey(entry.getKey())) {
+                    drift += Math.abs(entry.getValue().count.sum());
+                }
+            }
+
+            buckets = fresh;
+            reconciledAt = LocalDateTime.now();
+            lastDrift = drift;
+            if (drift > 0) {
+                System.out.println("🔁 Claim stats reconciled (drift " + drift + ")");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Claim stats reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    private record Key(Dimension dimension, String value) {}
+
+    private static final class Bucket {
+        final LongAdder count = new LongAdder();
+        final LongAdder amountPaise = new LongAdder();
+        final LongAdder fraud = new LongAdder();
+
+        Totals totals() {
+            return new Totals(count.sum(), amountPaise.sum() / 100.0, fraud.sum());
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.insurai.insurai_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.insurai.insurai_backend.model.EmailOutbox;
+import com.insurai.insurai_backend.repository.EmailOutboxRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Transactional email outbox.
+ *
+ * {@link #enqueue} only inserts a row into {@code email_outbox}, joining the caller's
+ * transaction, so an email exists exactly when the change it reports was committed
+ * and no request waits on the mail server. A poller thread claims due rows
+ * ({@code FOR UPDATE SKIP LOCKED}, with a lease so rows of a crashed worker come back)
+ * and hands them to the {@code emailDeliveryExecutor} pool. Failed sends are retried
+ * with exponential backoff and jitter; after {@code email.outbox.max-attempts}, or on
+ * an error retrying cannot fix (bad address, unparsable message), the row is marked
+ * DEAD and stays there until an admin requeues it.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final EmailOutboxRepository repository;
+    private final JavaMailSender mailSender;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final long pollIntervalMs;
+    private final long leaseSeconds;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Object signal = new Object();
+    private boolean signalled;      // guarded by signal
+    private volatile boolean running;
+    private Thread poller;
+
+    public EmailOutboxService(EmailOutboxRepository repository,
+                              JavaMailSender mailSender,
+                              @Qualifier("emailDeliveryExecutor") ThreadPoolTaskExecutor executor,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${email.outbox.workers:4}") int workers,
+                              @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                              @Value("${email.outbox.backoff-base-ms:30000}") long backoffBaseMs,
+                              @Value("${email.outbox.backoff-max-ms:3600000}") long backoffMaxMs,
+                              @Value("${email.outbox.poll-interval-ms:2000}") long pollIntervalMs,
+                              @Value("${email.outbox.lease-seconds:120}") long leaseSeconds) {
+        this.repository = repository;
+        this.mailSender = mailSender;
+        this.executor = executor;
+        this.transactionTemplate = transactionTemplate;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.pollIntervalMs = pollIntervalMs;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    public record OutboxStats(Map<String, Long> byStatus, int inFlight) {}
+
+    // ------------------ Enqueue ------------------
+
+    /**
+     * Queue an HTML email. Runs in the caller's transaction when there is one, so the
+     * email is only sent if that transaction commits.
+     */
+    public EmailOutbox enqueue(String to, String subject, String htmlBody, String eventType) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setHtmlBody(htmlBody);
+        email.setEventType(eventType);
+        email.setStatus(EmailOutbox.PENDING);
+        email.setNextAttemptAt(now);
+        email.setCreatedAt(now);
+        EmailOutbox saved = repository.save(email);
+
+        // Pick it up right away instead of at the next poll
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wake();
+                }
+            });
+        } else {
+            wake();
+        }
+        return saved;
+    }
+
+    // ------------------ Delivery ------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        poller = new Thread(this::pollLoop, "email-outbox-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (poller != null) {
+            wake();
+            poller.join(5000);
+        }
+    }
+
+    private void wake() {
+        synchronized (signal) {
+            signalled = true;
+            signal.notifyAll();
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            boolean backlog = false;
+            try {
+                // Never claim more rows than there are idle workers; the rest stay claimable by other instances
+                int free = workers - inFlight.get();
+                if (free > 0) {
+                    List<EmailOutbox> claimed = claimDue(free);
+                    for (EmailOutbox email : claimed) {
+                        inFlight.incrementAndGet();
+                        try {
+                            executor.execute(() -> {
+                                try {
+                                    deliver(email);
+                                } finally {
+                                    inFlight.decrementAndGet();
+                                    wake();
+                                }
+                            });
+                        } catch (RuntimeException e) {
+                            // Not handed over; the lease runs out and the row is claimed again
+                            inFlight.decrementAndGet();
+                            throw e;
+                        }
+                    }
+                    backlog = claimed.size() == free;
+                }
+            } catch (Exception e) {
+                System.err.println("❌ Email outbox poll failed: " + e.getMessage());
+            }
+            if (!backlog) {
+                awaitSignal();
+            }
+        }
+    }
+
+    private void awaitSignal() {
+        synchronized (signal) {
+            if (!signalled && running) {
+                try {
+                    signal.wait(pollIntervalMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+            signalled = false;
+        }
+    }
+
+    // Lock due rows, lease them to this instance, commit; the sends happen outside any transaction
+    private List<EmailOutbox> claimDue(int limit) {
+        return transactionTemplate.execute(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = repository.lockDueIds(now, limit);
+            if (ids.isEmpty()) return List.<EmailOutbox>of();
+            repository.markSending(ids, now.plusSeconds(leaseSeconds));
+            return repository.findAllById(ids);
+        });
+    }
+
+    private void deliver(EmailOutbox email) {
+        try {
+            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+            helper.setTo(email.getRecipient());
+            helper.setSubject(email.getSubject());
+            helper.setText(email.getHtmlBody(), true);
+            mailSender.send(mimeMessage);
+
+            if (repository.markSent(email.getId(), email.getAttempts(), LocalDateTime.now()) == 0) {
+                System.err.println("⚠️ Email #" + email.getId() + " was re-claimed after its lease ran out; it may be sent twice");
+                return;
+            }
+            System.out.println("✅ Email #" + email.getId() + " (" + email.getEventType() + ") sent to " + email.getRecipient());
+        } catch (Exception e) {
+            fail(email, e);
+        }
+    }
+
+    private void fail(EmailOutbox email, Exception e) {
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        try {
+            // attempts was already incremented when the row was claimed
+            if (isPermanent(e) || email.getAttempts() >= maxAttempts) {
+                if (repository.markDead(email.getId(), email.getAttempts(), error) == 0) return;
+                System.err.println("❌ Email #" + email.getId() + " to " + email.getRecipient()
+                        + " dead after " + email.getAttempts() + " attempt(s): " + error);
+            } else {
+                LocalDateTime next = LocalDateTime.now().plusNanos(backoffMs(email.getAttempts()) * 1_000_000L);
+                if (repository.markRetry(email.getId(), email.getAttempts(), next, error) == 0) return;
+                System.err.println("⚠️ Email #" + email.getId() + " to " + email.getRecipient()
+                        + " failed (attempt " + email.getAttempts() + "), retrying at " + next + ": " + error);
+            }
+        } catch (Exception dbError) {
+            // The lease runs out and the row is picked up again
+            System.err.println("❌ Could not record failure of email #" + email.getId() + ": " + dbError.getMessage());
+        }
+    }
+
+    // Errors a retry cannot fix. JavaMailSender wraps the MessagingException of a failed send
+    // in a MailSendException, keyed by message, so those are looked at one by one.
+    private static boolean isPermanent(Exception e) {
+        if (e instanceof MailParseException || e instanceof MailPreparationException || e instanceof MessagingException) {
+            return true;
+        }
+        if (e instanceof MailSendException sendException) {
+            for (Exception failure : sendException.getFailedMessages().values()) {
+                if (isPermanentSendFailure(failure)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // A malformed address, or a rejection with only 5xx SMTP replies. 4xx replies (421, greylisting
+    // 450, 451, 452) and recipients that were valid but not sent to are worth another attempt.
+    private static boolean isPermanentSendFailure(Exception failure) {
+        if (failure instanceof AddressException) return true;
+        if (!(failure instanceof SendFailedException sendFailed)) return false;
+
+        boolean rejected = false;
+        for (Exception next = sendFailed; next != null;
+             next = next instanceof MessagingException m ? m.getNextException() : null) {
+            int code = smtpReturnCode(next);
+            if (code >= 400 && code < 500) return false;
+            if (code >= 500) rejected = true;
+        }
+        if (rejected) return true;
+        // No SMTP reply code: permanent only when every failed address was invalid
+        return isEmpty(sendFailed.getValidUnsentAddresses()) && !isEmpty(sendFailed.getInvalidAddresses());
+    }
+
+    private static int smtpReturnCode(Exception e) {
+        if (e instanceof SMTPSendFailedException f) return f.getReturnCode();
+        if (e instanceof SMTPAddressFailedException f) return f.getReturnCode();
+        if (e instanceof SMTPSenderFailedException f) return f.getReturnCode();
+        return -1;
+    }
+
+    private static boolean isEmpty(Object[] addresses) {
+        return addresses == null || addresses.length == 0;
+    }
+
+    // base * 2^(attempt-1), capped, with +-20% jitter so failed emails do not retry in lockstep
+    private long backoffMs(int attempt) {
+        long delay = backoffBaseMs << Math.min(attempt - 1, 30);
+        if (delay <= 0 || delay > backoffMaxMs) {
+            delay = backoffMaxMs;
+        }
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return (long) (delay * jitter);
+    }
+
+    // ------------------ Admin ------------------
+
+    public OutboxStats stats() {
+        Map<String, Long> byStatus = new TreeMap<>();
+        for (Object[] row : repository.countByStatus()) {
+            byStatus.put((String) row[0], (Long) row[1]);
+        }
+        return new OutboxStats(byStatus, inFlight.get());
+    }
+
+    public List<EmailOutbox> deadLetters(int limit) {
+        return repository.findDead(PageRequest.of(0, limit));
+    }
+
+    /**
+     * Put a dead email back in the queue with a fresh attempt budget.
+     *
+     * @return false if there is no DEAD email with that id
+     */
+    public boolean retry(Long id) {
+        boolean requeued = repository.requeueDead(id, LocalDateTime.now()) > 0;
+        if (requeued) {
+            wake();
+        }
+        return requeued;
+    }
+}
@@ -1,16 +1,46 @@
 package com.insurai.insurai_backend.service;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.service.fraud.DuplicateClaimIndex;
+import com.insurai.insurai_backend.service.fraud.EmployeeFraudProfile;
+import com.insurai.insurai_backend.service.fraud.FraudContext;
+import com.insurai.insurai_backend.service.fraud.FraudRule;
+import com.insurai.insurai_backend.service.fraud.FraudRuleStats;
 
 @Service
 public class FraudService {
 
+    // Rule chain compiled once at startup: sorted by cost, with parallel stats slots
+    private final FraudRule[] rules;
+    private final FraudRuleStats[] stats;
+
+    // Stop at the first matching rule on the submit path
+    private final boolean onlineFirstHit;
+
+    private final DuplicateClaimIndex duplicateClaimIndex;
+
+    public FraudService(List<FraudRule> rules,
+                        DuplicateClaimIndex duplicateClaimIndex,
+                        @Value("${fraud.online.first-hit:false}") boolean onlineFirstHit) {
+        this.duplicateClaimIndex = duplicateClaimIndex;
+        this.rules = rules.stream()
+                .sorted(Comparator.comparingInt(FraudRule::cost))
+                .toArray(FraudRule[]::new);
+        this.stats = new FraudRuleStats[this.rules.length];
+        for (int i = 0; i < this.rules.length; i++) {
+            this.stats[i] = new FraudRuleStats(this.rules[i].reason(), this.rules[i].cost());
+        }
+        this.onlineFirstHit = onlineFirstHit;
+    }
+
     /**
      * Run fraud detection rules for a claim
      *
@@ -18,83 +48,77 @@ public class FraudService {
      * @param employeeClaims List of all previous claims by this employee
      */
     public void runFraudDetection(Claim claim, List<Claim> employeeClaims) {
-        StringBuilder reasons = new StringBuilder();
-        boolean fraud = false;
-
-        // Convert claim date to LocalDate for easier comparison
-        LocalDate claimDate = claim.getClaimDate().toLocalDate();
-        LocalDate policyStart = claim.getPolicy().getStartDate();
-        LocalDate policyEnd = claim.getPolicy().getRenewalDate(); // Replace with getEndDate() if available
-
-        // 1. Duplicate claim: same policy, same amount, same date
-        for (Claim c : employeeClaims) {
-            if (c.getPolicy().getId().equals(claim.getPolicy().getId())
-                    && c.getAmount().equals(claim.getAmount())
-                    && c.getClaimDate().toLocalDate().equals(claimDate)) {
-                fraud = true;
-                reasons.append("Duplicate claim; ");
-                break;
-            }
-        }
+        evaluate(new FraudContext(claim, EmployeeFraudProfile.of(employeeClaims), null, null), false);
+    }
 
-        // 2. Frequent claims: more than 3 claims in last 7 days
-        long recentCount = employeeClaims.stream()
-                .filter(c -> c.getCreatedAt().isAfter(LocalDateTime.now().minusDays(7)))
-                .count();
-        if (recentCount >= 3) {
-            fraud = true;
-            reasons.append("Frequent claims; ");
-        }
+    /**
+     * Run fraud detection rules for a claim against the employee's maintained aggregate.
+     * This is the online submit path: the claim's duplicate key is reserved up front
+     * (before any rule can short-circuit) and {@code fraud.online.first-hit} is honoured.
+     *
+     * @param claim   Claim to evaluate (not yet part of the profile)
+     * @param profile Aggregate of the employee's previous claims
+     */
+    public void runFraudDetection(Claim claim, EmployeeFraudProfile profile) {
+        runFraudDetection(claim, profile, reserveDuplicateKey(claim));
+    }
 
-        // 3. Invalid claim date: before policy start or after policy end/renewal
-        if ((policyStart != null && claimDate.isBefore(policyStart))
-                || (policyEnd != null && claimDate.isAfter(policyEnd))) {
-            fraud = true;
-            reasons.append("Invalid claim date; ");
-        }
+    /**
+     * Online evaluation for a claim whose duplicate key was already reserved
+     * (asynchronous scoring reserves on the request thread, scores on the pool).
+     */
+    public void runFraudDetection(Claim claim, EmployeeFraudProfile profile, boolean knownDuplicate) {
+        evaluate(new FraudContext(claim, profile, knownDuplicate, null), onlineFirstHit);
+    }
 
-        // 4. Reused documents
-        if (claim.getDocuments() != null) {
-            boolean reused = employeeClaims.stream()
-                    .filter(c -> c.getDocuments() != null)
-                    .flatMap(c -> c.getDocuments().stream())
-                    .anyMatch(doc -> claim.getDocuments().stream()
-                            .anyMatch(d -> d.trim().equalsIgnoreCase(doc.trim())));
-            if (reused) {
-                fraud = true;
-                reasons.append("Reused document; ");
-            }
+    /**
+     * Reserve the claim's duplicate key.
+     *
+     * @return true if another claim already holds it
+     */
+    public boolean reserveDuplicateKey(Claim claim) {
+        if (claim.getDuplicateKey() == null) {
+            claim.setDuplicateKey(DuplicateClaimIndex.keyFor(claim));
         }
+        return duplicateClaimIndex.reserve(claim);
+    }
 
-        // 5. Unusual pattern / sudden spike in claim amount
-        double avgAmount = employeeClaims.stream().mapToDouble(Claim::getAmount).average().orElse(0);
-        if (avgAmount > 0 && claim.getAmount() > avgAmount * 3) {
-            fraud = true;
-            reasons.append("Unusual amount spike; ");
-        }
+    /**
+     * Full evaluation with a caller-supplied reused-document check (the bulk re-scan
+     * already has the fingerprints of a whole page at hand).
+     */
+    public void runFraudDetection(Claim claim, EmployeeFraudProfile profile, Predicate<Claim> documentReused) {
+        evaluate(new FraudContext(claim, profile, null, documentReused), false);
+    }
 
-        // 6. Same procedure repeatedly (multiple claims for same title in 30 days)
-        long sameProcedureCount = employeeClaims.stream()
-                .filter(c -> c.getTitle() != null 
-                        && c.getTitle().equalsIgnoreCase(claim.getTitle())
-                        && c.getClaimDate().isAfter(LocalDateTime.now().minusDays(30)))
-                .count();
-        if (sameProcedureCount >= 2) {
-            fraud = true;
-            reasons.append("Repeated procedure; ");
-        }
+    private void evaluate(FraudContext context, boolean firstHit) {
+        List<String> reasons = new ArrayList<>(2);
+
+        for (int i = 0; i < rules.length; i++) {
+            long start = System.nanoTime();
+            boolean hit = rules[i].matches(context);
+            stats[i].record(System.nanoTime() - start, hit);
 
-        // 7. High-risk combinations (example: Life policy + minor illness)
-        if (claim.getPolicy().getPolicyType() != null
-                && claim.getPolicy().getPolicyType().equalsIgnoreCase("Life")
-                && claim.getTitle() != null
-                && claim.getTitle().equalsIgnoreCase("Minor Illness")) {
-            fraud = true;
-            reasons.append("High-risk combination; ");
+            if (hit) {
+                reasons.add(rules[i].reason());
+                if (firstHit) break;
+            }
         }
 
-        // Set final fraud flag and reason
-        claim.setFraudFlag(fraud);
-        claim.setFraudReason(fraud ? reasons.toString().trim() : null);
+        // Set final fraud flag and reason ("Reason A; Reason B;")
+        Claim claim = context.getClaim();
+        claim.setFraudFlag(!reasons.isEmpty());
+        claim.setFraudReason(reasons.isEmpty() ? null : String.join("; ", reasons) + ";");
+    }
+
+    /**
+     * Per-rule hit counts and latency percentiles, in evaluation order.
+     */
+    public List<FraudRuleStats.Snapshot> getRuleStats() {
+        List<FraudRuleStats.Snapshot> snapshots = new ArrayList<>(stats.length);
+        for (FraudRuleStats s : stats) {
+            snapshots.add(s.snapshot());
+        }
+        return snapshots;
     }
 }
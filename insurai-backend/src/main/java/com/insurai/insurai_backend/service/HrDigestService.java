@@ -0,0 +1,229 @@
+package com.insurai.insurai_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.model.Hr;
+import com.insurai.insurai_backend.model.HrDigestItem;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+import com.insurai.insurai_backend.repository.HrDigestItemRepository;
+import com.insurai.insurai_backend.repository.HrRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Digest delivery of "new claim assigned" emails for HRs in {@code DIGEST} mode.
+ *
+ * Each assignment is written to {@code hr_digest_items} in the transaction that stores
+ * the claim, so nothing is lost on a restart. Per HR, the number of waiting items and
+ * the age of the oldest one are also kept in memory; a digest is sent once an HR has
+ * {@code hr.digest.max-items} items, or when the oldest is {@code hr.digest.interval-ms}
+ * old. A flush locks the HR's items, queues one email in the outbox and deletes the
+ * items in one transaction.
+ *
+ * The in-memory counters only see this instance's assignments (plus what was in the
+ * table at startup); items from other instances are sent by their own flushes.
+ */
+@Service
+public class HrDigestService {
+
+    private final HrDigestItemRepository digestItemRepository;
+    private final HrRepository hrRepository;
+    private final ClaimRepository claimRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxItems;
+    private final long intervalMs;
+
+    // hrId -> waiting items; entries are replaced, never mutated
+    private final Map<Long, Waiting> waiting = new ConcurrentHashMap<>();
+
+    // HRs with a threshold flush queued or running, so a burst of adds queues only one
+    private final Set<Long> flushPending = ConcurrentHashMap.newKeySet();
+
+    // Threshold flushes, off the submitting thread
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "hr-digest-flush");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public HrDigestService(HrDigestItemRepository digestItemRepository,
+                           HrRepository hrRepository,
+                           ClaimRepository claimRepository,
+                           NotificationService notificationService,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${hr.digest.max-items:20}") int maxItems,
+                           @Value("${hr.digest.interval-ms:3600000}") long intervalMs) {
+        this.digestItemRepository = digestItemRepository;
+        this.hrRepository = hrRepository;
+        this.claimRepository = claimRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxItems = maxItems;
+        this.intervalMs = intervalMs;
+    }
+
+    private record Waiting(int count, LocalDateTime oldest) {}
+
+    public record DigestStatus(Long hrId, int waitingItems, LocalDateTime oldest) {}
+
+    /**
+     * Hold a claim assignment for {@code hr}'s next digest. Call inside the transaction
+     * that stores the claim.
+     */
+    public void add(Hr hr, Claim claim) {
+        HrDigestItem item = new HrDigestItem();
+        item.setHrId(hr.getId());
+        item.setClaimId(claim.getId());
+        item.setCreatedAt(LocalDateTime.now());
+        digestItemRepository.save(item);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    added(hr.getId(), item.getCreatedAt());
+                }
+            });
+        } else {
+            added(hr.getId(), item.getCreatedAt());
+        }
+    }
+
+    private void added(Long hrId, LocalDateTime createdAt) {
+        Waiting now = waiting.merge(hrId, new Waiting(1, createdAt),
+                (old, one) -> new Waiting(old.count() + 1, old.oldest()));
+        if (now.count() >= maxItems) {
+            flushWhenFull(hrId);
+        }
+    }
+
+    private void flushWhenFull(Long hrId) {
+        if (!flushPending.add(hrId)) return;
+        flusher.submit(() -> {
+            int flushed;
+            try {
+                flushed = flush(hrId);
+            } finally {
+                flushPending.remove(hrId);
+            }
+            // Items that arrived while the flag was set may have filled another digest;
+            // after a failed flush the interval check retries instead
+            Waiting left = waiting.get(hrId);
+            if (flushed > 0 && left != null && left.count() >= maxItems) {
+                flushWhenFull(hrId);
+            }
+        });
+    }
+
+    /**
+     * Send whatever is waiting for an HR soon (e.g. after they switch back to immediate emails).
+     */
+    public void flushLater(Long hrId) {
+        flusher.submit(() -> flush(hrId));
+    }
+
+    /**
+     * Send one digest with every item waiting for the HR.
+     *
+     * @return number of claims in the digest
+     */
+    public int flush(Long hrId) {
+        try {
+            Integer sent = transactionTemplate.execute(tx -> {
+                List<HrDigestItem> items = digestItemRepository.lockByHrId(hrId);
+                if (items.isEmpty()) return 0;
+
+                Hr hr = hrRepository.findById(hrId).orElse(null);
+                if (hr != null && hr.getEmail() != null) {
+                    List<Long> claimIds = items.stream().map(HrDigestItem::getClaimId).toList();
+                    Map<Long, Claim> byId = claimRepository.findByIdInWithDetails(claimIds).stream()
+                            .collect(Collectors.toMap(Claim::getId, Function.identity()));
+                    List<Claim> claims = new ArrayList<>(claimIds.size());
+                    for (Long claimId : claimIds) {
+                        Claim claim = byId.get(claimId);
+                        if (claim != null) claims.add(claim);
+                    }
+                    if (!claims.isEmpty()) {
+                        notificationService.sendHrClaimDigest(hr.getEmail(), hr, claims);
+                    }
+                }
+                digestItemRepository.deleteAllInBatch(items);
+                return items.size();
+            });
+            int flushed = sent != null ? sent : 0;
+            // Items added while flushing stay counted, with a fresh age
+            waiting.computeIfPresent(hrId, (id, old) -> flushed == 0 || old.count() <= flushed
+                    ? null : new Waiting(old.count() - flushed, LocalDateTime.now()));
+            return flushed;
+        } catch (Exception e) {
+            System.err.println("❌ HR digest flush failed for HR #" + hrId + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Send the digests whose oldest item has waited a full interval.
+     */
+    @Scheduled(initialDelayString = "${hr.digest.check-interval-ms:60000}",
+               fixedDelayString = "${hr.digest.check-interval-ms:60000}")
+    public void flushDue() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(intervalMs * 1_000_000L);
+        for (Map.Entry<Long, Waiting> entry : waiting.entrySet()) {
+            if (!entry.getValue().oldest().isAfter(cutoff)) {
+                int flushed = flush(entry.getKey());
+                if (flushed > 0) {
+                    System.out.println("📬 HR digest sent to HR #" + entry.getKey() + " (" + flushed + " claims)");
+                }
+            }
+        }
+    }
+
+    public DigestStatus status(Long hrId) {
+        Waiting w = waiting.get(hrId);
+        return w == null ? new DigestStatus(hrId, 0, null) : new DigestStatus(hrId, w.count(), w.oldest());
+    }
+
+    // Pick up items left in the table by a restart
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            for (Object[] row : digestItemRepository.summarizeByHr()) {
+                Long hrId = (Long) row[0];
+                int count = ((Long) row[1]).intValue();
+                waiting.put(hrId, new Waiting(count, (LocalDateTime) row[2]));
+                if (count >= maxItems) {
+                    flushWhenFull(hrId);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Loading waiting HR digest items failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,289 @@
+package com.insurai.insurai_backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.model.Hr;
+import com.insurai.insurai_backend.model.UserStatus;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+import com.insurai.insurai_backend.repository.HrRepository;
+
+/**
+ * Pending-claim load per active HR, kept in memory, and the claim routing built on it.
+ *
+ * Built from one grouped count query at startup, then moved by assignment and by
+ * approve/reject. Active HRs sit in a skip list ordered by weighted load
+ * (pending / routingWeight, then hrId). Routing happens under one lock and never
+ * touches the database:
+ * <ol>
+ *   <li>HRs at their {@code maxPendingClaims} are skipped while anyone else has room;</li>
+ *   <li>HRs listing the claim's policy type in {@code policyTypes} come first, then
+ *       HRs without a list, then HRs listing only other types;</li>
+ *   <li>normal claims go to the first remaining HR in load order;</li>
+ *   <li>heavy claims (large or fraud-flagged) also weigh how many of the last
+ *       {@code claims.routing.fairness-window} heavy claims each HR already got,
+ *       so they spread instead of piling up on one reviewer.</li>
+ * </ol>
+ * With asynchronous fraud scoring the flag is not known at assignment; a claim flagged
+ * later is counted as heavy for its HR then ({@link #flaggedAfterAssignment}), so the
+ * following heavy claims go elsewhere. The claim itself is not moved.
+ */
+@Service
+public class HrLoadTracker {
+
+    private final HrRepository hrRepository;
+    private final ClaimRepository claimRepository;
+    private final double largeClaimAmount;
+    private final int fairnessWindow;
+
+    // hrId -> current slot in the queue
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Slot> queue = new ConcurrentSkipListSet<>();
+
+    // HR ids of the last heavy assignments, oldest first (guarded by this)
+    private final Deque<Long> recentHeavy = new ArrayDeque<>();
+    private final Map<Long, Integer> heavyInWindow = new HashMap<>();
+    private final Map<Long, Long> assignedTotal = new HashMap<>();
+
+    private volatile boolean loaded = false;
+
+    public HrLoadTracker(HrRepository hrRepository,
+                         ClaimRepository claimRepository,
+                         @Value("${claims.routing.large-amount:50000}") double largeClaimAmount,
+                         @Value("${claims.routing.fairness-window:20}") int fairnessWindow) {
+        this.hrRepository = hrRepository;
+        this.claimRepository = claimRepository;
+        this.largeClaimAmount = largeClaimAmount;
+        this.fairnessWindow = fairnessWindow;
+    }
+
+    // ------------------ Loading ------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    public synchronized void reload() {
+        Map<Long, Long> pendingByHr = new HashMap<>();
+        for (Object[] row : claimRepository.countPendingByAssignedHr()) {
+            pendingByHr.put((Long) row[0], (Long) row[1]);
+        }
+
+        slots.clear();
+        queue.clear();
+        for (Hr hr : hrRepository.findByStatus(UserStatus.ACTIVE)) {
+            put(new Slot(pendingByHr.getOrDefault(hr.getId(), 0L).intValue(), hr));
+        }
+        loaded = true;
+        System.out.println("✅ HR load tracker ready (" + slots.size() + " active HRs)");
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    // ------------------ Assignment ------------------
+
+    /**
+     * Route a claim to an active HR and count it against that HR.
+     *
+     * @return the HR, or null if there is no active HR
+     */
+    public synchronized Hr assign(Claim claim) {
+        ensureLoaded();
+        if (queue.isEmpty()) return null;
+
+        String policyType = claim.getPolicy() != null ? claim.getPolicy().getPolicyType() : null;
+        boolean heavy = isHeavy(claim);
+
+        Slot chosen = heavy ? pickHeavy(policyType) : pickNormal(policyType);
+
+        queue.remove(chosen);
+        put(new Slot(chosen.pending + 1, chosen.hr));
+        Long hrId = chosen.hr.getId();
+        assignedTotal.merge(hrId, 1L, Long::sum);
+        if (heavy) {
+            recordHeavy(hrId);
+        }
+        return chosen.hr;
+    }
+
+    // Walk HRs in load order and take the first one of the best tier present
+    private Slot pickNormal(String policyType) {
+        Slot[] firstByTier = new Slot[4];
+        for (Slot slot : queue) {
+            int tier = slot.tier(policyType);
+            if (tier == 0) return slot;
+            if (firstByTier[tier] == null) firstByTier[tier] = slot;
+        }
+        for (Slot slot : firstByTier) {
+            if (slot != null) return slot;
+        }
+        return queue.first();
+    }
+
+    // Heavy claims: same tiers, ranked by load plus share of the recent heavy claims
+    private Slot pickHeavy(String policyType) {
+        Slot best = null;
+        double bestScore = Double.MAX_VALUE;
+        int bestTier = Integer.MAX_VALUE;
+        for (Slot slot : queue) {
+            int tier = slot.tier(policyType);
+            double score = (slot.pending + heavyInWindow.getOrDefault(slot.hr.getId(), 0)) / (double) slot.weight;
+            if (tier < bestTier || (tier == bestTier && score < bestScore)) {
+                best = slot;
+                bestTier = tier;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private void recordHeavy(Long hrId) {
+        recentHeavy.addLast(hrId);
+        heavyInWindow.merge(hrId, 1, Integer::sum);
+        while (recentHeavy.size() > fairnessWindow) {
+            Long oldest = recentHeavy.pollFirst();
+            heavyInWindow.computeIfPresent(oldest, (id, n) -> n > 1 ? n - 1 : null);
+        }
+    }
+
+    /**
+     * A claim already assigned turned out fraud-flagged (asynchronous scoring): count it
+     * in its HR's share of recent heavy claims, unless its amount already did.
+     */
+    public synchronized void flaggedAfterAssignment(Claim claim) {
+        if (claim.getAssignedHr() == null || !claim.isFraud()) return;
+        if (claim.getAmount() != null && claim.getAmount() >= largeClaimAmount) return;
+        recordHeavy(claim.getAssignedHr().getId());
+    }
+
+    private boolean isHeavy(Claim claim) {
+        return claim.isFraud() || (claim.getAmount() != null && claim.getAmount() >= largeClaimAmount);
+    }
+
+    /**
+     * A pending claim left this HR's queue (approved, rejected, or its submit failed).
+     */
+    public synchronized void release(Long hrId) {
+        if (hrId == null) return;
+        Slot slot = slots.get(hrId);
+        if (slot == null) return;
+        queue.remove(slot);
+        put(new Slot(Math.max(0, slot.pending - 1), slot.hr));
+    }
+
+    // ------------------ HR lifecycle ------------------
+
+    /**
+     * Add a newly registered HR, or update/drop one whose account status or routing settings changed.
+     */
+    public synchronized void hrUpdated(Hr hr) {
+        if (!loaded || hr == null || hr.getId() == null) return;
+
+        Slot existing = slots.remove(hr.getId());
+        if (existing != null) {
+            queue.remove(existing);
+        }
+        if (hr.getStatus() == UserStatus.ACTIVE) {
+            int pending = existing != null ? existing.pending : claimRepository.countByAssignedHrAndStatus(hr, "Pending");
+            put(new Slot(pending, hr));
+        }
+    }
+
+    // ------------------ Reads ------------------
+
+    public int pendingCount(Long hrId) {
+        Slot slot = slots.get(hrId);
+        return slot != null ? slot.pending : 0;
+    }
+
+    /**
+     * Queue depth and routing settings per active HR, most loaded first.
+     */
+    public synchronized List<HrQueueMetrics> metrics() {
+        ensureLoaded();
+        List<HrQueueMetrics> metrics = new ArrayList<>(slots.size());
+        for (Slot slot : queue.descendingSet()) {
+            Hr hr = slot.hr;
+            Integer max = hr.getMaxPendingClaims();
+            metrics.add(new HrQueueMetrics(hr.getId(), hr.getName(), slot.pending, slot.weight, max,
+                    max != null && max > 0 ? slot.pending * 100.0 / max : null,
+                    hr.getPolicyTypes(),
+                    heavyInWindow.getOrDefault(hr.getId(), 0),
+                    assignedTotal.getOrDefault(hr.getId(), 0L)));
+        }
+        return metrics;
+    }
+
+    public record HrQueueMetrics(Long hrId, String name, int pending, int routingWeight, Integer maxPendingClaims,
+                                 Double capacityUsedPercent, String policyTypes, int heavyInWindow,
+                                 long assignedSinceStartup) {}
+
+    private void put(Slot slot) {
+        slots.put(slot.hr.getId(), slot);
+        queue.add(slot);
+    }
+
+    /**
+     * Immutable queue entry; replaced (not mutated) when the count changes so the
+     * skip list ordering stays valid.
+     */
+    private static final class Slot implements Comparable<Slot> {
+        final int pending;
+        final Hr hr;
+        final int weight;                // copied so the ordering can't change under the skip list
+        final Set<String> policyTypes;
+
+        Slot(int pending, Hr hr) {
+            this.pending = pending;
+            this.hr = hr;
+            this.weight = hr.getRoutingWeight() != null && hr.getRoutingWeight() > 0 ? hr.getRoutingWeight() : 1;
+            this.policyTypes = hr.getPolicyTypes() == null || hr.getPolicyTypes().isBlank() ? Set.of()
+                    : Arrays.stream(hr.getPolicyTypes().split(","))
+                            .map(t -> t.trim().toLowerCase())
+                            .filter(t -> !t.isEmpty())
+                            .collect(Collectors.toUnmodifiableSet());
+        }
+
+        boolean hasRoom() {
+            Integer max = hr.getMaxPendingClaims();
+            return max == null || max <= 0 || pending < max;
+        }
+
+        /**
+         * 0 = has room and lists the policy type, 1 = has room and takes any type,
+         * 2 = has room but lists other types, 3 = at capacity.
+         */
+        int tier(String policyType) {
+            if (!hasRoom()) return 3;
+            if (policyTypes.isEmpty()) return 1;
+            return policyType != null && policyTypes.contains(policyType.toLowerCase()) ? 0 : 2;
+        }
+
+        @Override
+        public int compareTo(Slot other) {
+            // pending / weight, compared without division
+            int byLoad = Long.compare((long) pending * other.weight, (long) other.pending * weight);
+            return byLoad != 0 ? byLoad : Long.compare(hr.getId(), other.hr.getId());
+        }
+    }
+}
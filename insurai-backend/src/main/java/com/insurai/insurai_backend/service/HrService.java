@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 
 import com.insurai.insurai_backend.model.Employee;
 import com.insurai.insurai_backend.model.Hr;
+import com.insurai.insurai_backend.model.NotificationMode;
 import com.insurai.insurai_backend.model.RegisterRequest;
 import com.insurai.insurai_backend.repository.EmployeeRepository;
 import com.insurai.insurai_backend.repository.HrRepository;
@@ -21,6 +22,8 @@ public class HrService {
     private final HrRepository hrRepository;
     private final EmployeeRepository employeeRepository; // added for fetching employee name
     private final PasswordEncoder passwordEncoder;
+    private final HrLoadTracker hrLoadTracker;
+    private final HrDigestService hrDigestService;
 
     // -------------------- Register HR --------------------
     public Hr registerHR(RegisterRequest request) {
@@ -31,7 +34,21 @@ public class HrService {
         hr.setHrId(request.getHrId());
         hr.setPassword(passwordEncoder.encode(request.getPassword()));
 
-        return hrRepository.save(hr);
+        Hr saved = hrRepository.save(hr);
+        hrLoadTracker.hrUpdated(saved);
+        return saved;
+    }
+
+    // -------------------- Email delivery mode --------------------
+    public Hr updateNotificationMode(Hr hr, NotificationMode mode) {
+        NotificationMode previous = hr.getNotificationMode();
+        hr.setNotificationMode(mode);
+        Hr saved = hrRepository.save(hr);
+        hrLoadTracker.hrUpdated(saved); // assignment uses the tracker's copy of the HR
+        if (previous == NotificationMode.DIGEST && mode != NotificationMode.DIGEST) {
+            hrDigestService.flushLater(saved.getId()); // don't leave a half-filled digest behind
+        }
+        return saved;
     }
 
     // -------------------- Find HR by email --------------------
@@ -0,0 +1,241 @@
+package com.insurai.insurai_backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurai.insurai_backend.model.IdempotencyRecord;
+import com.insurai.insurai_backend.repository.IdempotencyRecordRepository;
+
+/**
+ * {@code Idempotency-Key} handling for endpoints that clients retry.
+ *
+ * The first request with a key claims it in {@code idempotency_keys} (INSERT IGNORE,
+ * so concurrent retries cannot both run), runs, and stores its 2xx response there.
+ * Later requests with the same key get that response back without running anything;
+ * the most recent ones are answered from a bounded in-memory LRU without a query.
+ * Failed requests release the key so the client can retry for real.
+ *
+ * The service that writes the row calls {@link #recordResource} inside its own
+ * transaction, so the key points at the claim as soon as the claim commits. A key
+ * with a resource is never run again: if the response was not stored (crash, or a
+ * failure after the commit) a retry rebuilds it from the resource with the
+ * endpoint's {@link Replay}.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final String COMPLETED = "COMPLETED";
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final long ttlMinutes;
+    private final long inProgressTimeoutSeconds;
+
+    // Completed responses, least recently used first (guarded by itself)
+    private final Map<String, Stored> recent;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.cache.max-size:10000}") int maxCached,
+                              @Value("${idempotency.ttl-minutes:1440}") long ttlMinutes,
+                              @Value("${idempotency.in-progress-timeout-seconds:120}") long inProgressTimeoutSeconds) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttlMinutes = ttlMinutes;
+        this.inProgressTimeoutSeconds = inProgressTimeoutSeconds;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+                return size() > maxCached;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        ResponseEntity<?> run() throws Exception;
+    }
+
+    // Response for a request whose write committed but whose response was not stored
+    @FunctionalInterface
+    public interface Replay {
+        ResponseEntity<?> replay(Long resourceId) throws Exception;
+    }
+
+    // Key of the request running on this thread, for recordResource
+    private final ThreadLocal<String> activeKey = new ThreadLocal<>();
+
+    private record Stored(String requestHash, int status, String body, LocalDateTime expiresAt) {}
+
+    /**
+     * Run {@code action} once per (scope, principal, key); replay its stored response for repeats.
+     *
+     * @param key         client's Idempotency-Key header (null or blank = no idempotency)
+     * @param requestHash {@link #hash} of the request parameters; a key reused with
+     *                    different parameters is rejected with 422
+     */
+    public ResponseEntity<?> execute(String scope, Long principalId, String key, String requestHash, Action action,
+                                     Replay replay) throws Exception {
+        if (key == null || key.isBlank()) {
+            return action.run();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.status(400).body(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = scope + ":" + principalId + ":" + key;
+        LocalDateTime now = LocalDateTime.now();
+
+        Stored stored = cached(id, now);
+        if (stored == null) {
+            IdempotencyRecord record = repository.findById(id).orElse(null);
+            if (record != null && isAbandoned(record, now)
+                    && repository.releaseAbandoned(id, now, now.minusSeconds(inProgressTimeoutSeconds)) > 0) {
+                record = null;
+            }
+            if (record != null && !COMPLETED.equals(record.getState())) {
+                if (!record.getRequestHash().equals(requestHash)) return mismatch();
+                if (record.getResourceId() == null) {
+                    return ResponseEntity.status(409).body("A request with this " + HEADER + " is still being processed");
+                }
+                // The write committed, only the response is missing
+                ResponseEntity<?> response = replay.replay(record.getResourceId());
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    store(id, requestHash, record.getExpiresAt(), response);
+                }
+                return replayed(response);
+            }
+            if (record != null) {
+                stored = new Stored(record.getRequestHash(), record.getResponseStatus(), record.getResponseBody(),
+                        record.getExpiresAt());
+                cache(id, stored);
+            }
+        }
+        if (stored != null) {
+            if (!stored.requestHash().equals(requestHash)) return mismatch();
+            return ResponseEntity.status(stored.status())
+                    .header("Idempotent-Replayed", "true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(stored.body());
+        }
+
+        LocalDateTime expiresAt = now.plusMinutes(ttlMinutes);
+        if (repository.reserve(id, requestHash, now, expiresAt) == 0) {
+            return ResponseEntity.status(409).body("A request with this " + HEADER + " is still being processed");
+        }
+
+        ResponseEntity<?> response;
+        activeKey.set(id);
+        try {
+            response = action.run();
+        } catch (Exception e) {
+            // Kept if the claim was already written; the retry replays it
+            repository.release(id);
+            throw e;
+        } finally {
+            activeKey.remove();
+        }
+
+        if (response.getStatusCode().is2xxSuccessful()) {
+            store(id, requestHash, expiresAt, response);
+        } else {
+            repository.release(id);
+        }
+        return response;
+    }
+
+    /**
+     * Tie the row written by the current idempotent request to its key. Call inside the
+     * transaction that writes it; does nothing outside {@link #execute}.
+     */
+    public void recordResource(Long resourceId) {
+        String id = activeKey.get();
+        if (id != null && resourceId != null) {
+            repository.attachResource(id, resourceId);
+        }
+    }
+
+    private void store(String id, String requestHash, LocalDateTime expiresAt, ResponseEntity<?> response)
+            throws Exception {
+        String body = objectMapper.writeValueAsString(response.getBody());
+        repository.complete(id, response.getStatusCode().value(), body);
+        cache(id, new Stored(requestHash, response.getStatusCode().value(), body, expiresAt));
+    }
+
+    private static ResponseEntity<?> replayed(ResponseEntity<?> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .header("Idempotent-Replayed", "true")
+                .body(response.getBody());
+    }
+
+    /**
+     * SHA-256 over the request parameters that define "the same request".
+     */
+    public static String hash(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // A request that claimed the key and never wrote anything (e.g. the server restarted mid-request)
+    private boolean isAbandoned(IdempotencyRecord record, LocalDateTime now) {
+        if (record.getExpiresAt().isBefore(now)) return true;
+        return !COMPLETED.equals(record.getState()) && record.getResourceId() == null
+                && record.getCreatedAt().isBefore(now.minusSeconds(inProgressTimeoutSeconds));
+    }
+
+    private ResponseEntity<?> mismatch() {
+        return ResponseEntity.status(422).body(HEADER + " was already used for a different request");
+    }
+
+    private Stored cached(String id, LocalDateTime now) {
+        synchronized (recent) {
+            Stored stored = recent.get(id);
+            if (stored != null && stored.expiresAt().isBefore(now)) {
+                recent.remove(id);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private void cache(String id, Stored stored) {
+        synchronized (recent) {
+            recent.put(id, stored);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int deleted = repository.deleteExpired(LocalDateTime.now());
+            if (deleted > 0) {
+                System.out.println("🧹 Purged " + deleted + " expired idempotency keys");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Idempotency key cleanup failed: " + e.getMessage());
+        }
+    }
+}
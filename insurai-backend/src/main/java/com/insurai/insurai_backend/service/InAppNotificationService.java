@@ -1,6 +1,7 @@
 package com.insurai.insurai_backend.service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +22,12 @@ public class InAppNotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationPushService notificationPushService;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
     // ------------------ Create Notifications ------------------
 
     public Notification createNotification(String title, String message, Long targetId, String targetRole, String notificationType) {
@@ -36,7 +43,29 @@ public class InAppNotificationService {
         notification.setCreatedAt(LocalDateTime.now());
         notification.setUpdatedAt(LocalDateTime.now());
 
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        unreadCounter.add(targetId, targetRole, 1);
+        notificationPushService.publish(saved);
+        return saved;
+    }
+
+    /**
+     * Save many notifications in one repository call (bulk claim decisions).
+     */
+    public List<Notification> createNotifications(List<Notification> notifications) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Notification notification : notifications) {
+            if (notification.getNotificationType() == null) notification.setNotificationType("GENERAL");
+            notification.setReadStatus(false);
+            notification.setCreatedAt(now);
+            notification.setUpdatedAt(now);
+        }
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+        for (Notification notification : saved) {
+            unreadCounter.add(notification.getTargetId(), notification.getTargetRole(), 1);
+            notificationPushService.publish(notification);
+        }
+        return saved;
     }
 
     public Notification createClaimApprovedNotification(Claim claim) {
@@ -93,6 +122,11 @@ public class InAppNotificationService {
         return notificationRepository.findByTargetIdAndTargetRoleAndReadStatusFalseOrderByCreatedAtDesc(userId, role);
     }
 
+    // Badge count from the in-memory counter (no rows loaded)
+    public long countUnreadByUserIdAndRole(Long userId, String role) {
+        return unreadCounter.get(userId, role);
+    }
+
     public List<Notification> getNotificationsByRole(String role) {
         return notificationRepository.findByTargetRoleOrderByCreatedAtDesc(role);
     }
@@ -133,17 +167,67 @@ public class InAppNotificationService {
             throw new RuntimeException("FORBIDDEN");
         }
 
+        // Guarded update: of two concurrent calls only the one that flipped the row moves the counter
+        LocalDateTime now = LocalDateTime.now();
+        int updated = notificationRepository.markReadByIds(List.of(notificationId), currentEmployeeId, role, now);
+        unreadCounter.add(notification.getTargetId(), notification.getTargetRole(), -updated);
+        if (updated > 0) {
+            notification.setUpdatedAt(now);
+        }
         notification.setReadStatus(true);
-        notification.setUpdatedAt(LocalDateTime.now());
-        return notificationRepository.save(notification);
+        return notification;
     }
     
+    /**
+     * Mark all of a user's unread notifications as read in one statement.
+     *
+     * @return number of notifications that were unread
+     */
+    public int markAllAsRead(Long targetId, String targetRole) {
+        int updated = notificationRepository.markAllRead(targetId, targetRole, LocalDateTime.now());
+        unreadCounter.add(targetId, targetRole, -updated);
+        return updated;
+    }
+
+    /**
+     * Mark the given notifications as read in one statement. Ids that belong to another
+     * user or role, or are already read, are left alone.
+     *
+     * @return number of notifications that were unread
+     */
+    public int markAsRead(Collection<Long> notificationIds, Long targetId, String targetRole) {
+        if (notificationIds == null || notificationIds.isEmpty()) return 0;
+        int updated = notificationRepository.markReadByIds(notificationIds, targetId, targetRole, LocalDateTime.now());
+        unreadCounter.add(targetId, targetRole, -updated);
+        return updated;
+    }
+
+    /**
+     * Delete a user's notifications created before {@code before} in one statement.
+     *
+     * @return number of notifications deleted
+     */
+    public int deleteOlderThan(Long targetId, String targetRole, LocalDateTime before) {
+        int deleted = notificationRepository.deleteOlderThan(targetId, targetRole, before);
+        if (deleted > 0) {
+            // Some of them may have been unread; count again on the next read
+            unreadCounter.invalidate(targetId, targetRole);
+        }
+        return deleted;
+    }
+
     /**
      * Delete a notification
      **/
     public void deleteNotification(Long notificationId) {
-        if (notificationId != null && notificationRepository.existsById(notificationId)) {
-            notificationRepository.deleteById(notificationId);
-        }
+        if (notificationId == null) return;
+        notificationRepository.findById(notificationId).ifPresent(notification -> {
+            // Only the call that removed the row while it was unread moves the counter
+            if (notificationRepository.deleteUnreadById(notificationId) > 0) {
+                unreadCounter.add(notification.getTargetId(), notification.getTargetRole(), -1);
+            } else {
+                notificationRepository.deleteOneById(notificationId);
+            }
+        });
     }
 }
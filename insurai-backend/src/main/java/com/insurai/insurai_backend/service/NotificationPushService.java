@@ -0,0 +1,371 @@
+package com.insurai.insurai_backend.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.insurai.insurai_backend.model.Notification;
+import com.insurai.insurai_backend.repository.NotificationRepository;
+
+/**
+ * Pushes new in-app notifications to connected clients (SSE, or long-poll as a fallback).
+ *
+ * Clients are grouped in a channel per (role, user id). {@link InAppNotificationService}
+ * publishes every saved notification after commit; the channel keeps the last
+ * {@code notifications.push.replay-size} of them so a client reconnecting with
+ * {@code Last-Event-ID} (the notification id) gets what it missed from memory. Only a
+ * reconnect that cannot be answered from the channel (new channel, or too far behind)
+ * reads the database, outside the channel lock so publishing to the channel never
+ * waits on it; idle connections cost nothing but a heartbeat.
+ *
+ * Each SSE connection has a bounded send queue drained on the
+ * {@code notificationPushExecutor} pool, so a slow client never blocks the publisher;
+ * a client whose queue overflows is disconnected and catches up when it reconnects.
+ */
+@Service
+public class NotificationPushService {
+
+    // Page size of findTop100ByTargetIdAndTargetRoleAndIdGreaterThanOrderByIdAsc
+    private static final int GAP_PAGE_SIZE = 100;
+
+    private final NotificationRepository notificationRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final int replaySize;
+    private final int connectionBuffer;
+    private final int maxConnectionsPerUser;
+    private final long emitterTimeoutMs;
+    private final long channelIdleMs;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    public NotificationPushService(NotificationRepository notificationRepository,
+                                   @Qualifier("notificationPushExecutor") ThreadPoolTaskExecutor executor,
+                                   @Value("${notifications.push.replay-size:50}") int replaySize,
+                                   @Value("${notifications.push.connection-buffer:100}") int connectionBuffer,
+                                   @Value("${notifications.push.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                   @Value("${notifications.push.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                                   @Value("${notifications.push.channel-idle-ms:300000}") long channelIdleMs) {
+        this.notificationRepository = notificationRepository;
+        this.executor = executor;
+        this.replaySize = replaySize;
+        this.connectionBuffer = connectionBuffer;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.channelIdleMs = channelIdleMs;
+    }
+
+    public record PushStats(int channels, int connections, int waiters) {}
+
+    // ------------------ Publishing ------------------
+
+    /**
+     * Push a saved notification to its target's connections, after the current
+     * transaction commits (right away if there is none).
+     */
+    public void publish(Notification notification) {
+        if (notification == null || notification.getId() == null || notification.getTargetId() == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(notification);
+                }
+            });
+        } else {
+            deliver(notification);
+        }
+    }
+
+    private void deliver(Notification notification) {
+        // Nobody listening (or recently listening) for this user: nothing to do
+        Channel channel = channels.get(key(notification.getTargetRole(), notification.getTargetId()));
+        if (channel == null) return;
+
+        List<Connection> overflowed = new ArrayList<>();
+        List<Connection> ready = new ArrayList<>();
+        List<DeferredResult<List<Notification>>> waiters;
+        synchronized (channel) {
+            channel.remember(notification);
+            for (Connection connection : channel.connections) {
+                if (connection.offer(notification)) {
+                    ready.add(connection);
+                } else {
+                    overflowed.add(connection);
+                }
+            }
+            waiters = new ArrayList<>(channel.waiters);
+            channel.waiters.clear();
+        }
+        for (DeferredResult<List<Notification>> waiter : waiters) {
+            waiter.setResult(List.of(notification));
+        }
+        for (Connection connection : overflowed) {
+            close(channel, connection);
+        }
+        for (Connection connection : ready) {
+            schedule(connection);
+        }
+    }
+
+    // ------------------ SSE ------------------
+
+    /**
+     * Open an SSE stream for a user; with {@code lastEventId} the notifications after it
+     * are sent first.
+     */
+    public SseEmitter subscribe(Long userId, String role, Long lastEventId) {
+        Channel channel = channel(userId, role);
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Connection connection = new Connection(emitter, connectionBuffer);
+
+        List<Notification> gap = loadGap(channel, userId, role, lastEventId);
+        Connection evicted = null;
+        synchronized (channel) {
+            for (Notification missed : missedSince(channel, lastEventId, gap)) {
+                connection.offer(missed);
+            }
+            channel.connections.add(connection);
+            channel.lastActive = System.currentTimeMillis();
+            if (channel.connections.size() > maxConnectionsPerUser) {
+                evicted = channel.connections.get(0);   // oldest tab/device
+            }
+        }
+        if (evicted != null) {
+            close(channel, evicted);
+        }
+
+        emitter.onCompletion(() -> remove(channel, connection));
+        emitter.onTimeout(() -> close(channel, connection));
+        emitter.onError(e -> close(channel, connection));
+
+        // An initial comment flushes the response headers so the client sees the stream open
+        connection.offerHeartbeat();
+        schedule(connection);
+        return emitter;
+    }
+
+    // ------------------ Long-poll fallback ------------------
+
+    /**
+     * Notifications after {@code afterId}, waiting up to {@code timeoutMs} for the next
+     * one when there are none yet (empty list on timeout).
+     */
+    public DeferredResult<List<Notification>> poll(Long userId, String role, Long afterId, long timeoutMs) {
+        Channel channel = channel(userId, role);
+        DeferredResult<List<Notification>> result = new DeferredResult<>(timeoutMs, List.of());
+        List<Notification> gap = loadGap(channel, userId, role, afterId);
+        synchronized (channel) {
+            channel.lastActive = System.currentTimeMillis();
+            List<Notification> missed = missedSince(channel, afterId, gap);
+            if (!missed.isEmpty()) {
+                result.setResult(missed);
+                return result;
+            }
+            channel.waiters.add(result);
+        }
+        result.onCompletion(() -> {
+            synchronized (channel) {
+                channel.waiters.remove(result);
+            }
+        });
+        return result;
+    }
+
+    // Called without the channel lock: notifications after lastId the channel cannot give from memory
+    private List<Notification> loadGap(Channel channel, Long userId, String role, Long lastId) {
+        if (lastId == null) return List.of();
+        synchronized (channel) {
+            if (channel.covers(lastId)) return List.of();
+        }
+        return notificationRepository.findTop100ByTargetIdAndTargetRoleAndIdGreaterThanOrderByIdAsc(userId, role, lastId);
+    }
+
+    // Caller holds the channel lock: the gap read from the database, then what went through the channel after it
+    private static List<Notification> missedSince(Channel channel, Long lastId, List<Notification> gap) {
+        if (lastId == null) return List.of();
+        // A full page means the database had more; the client asks again from its last id
+        if (gap.size() == GAP_PAGE_SIZE) return gap;
+        long after = gap.isEmpty() ? lastId : gap.get(gap.size() - 1).getId();
+        List<Notification> missed = new ArrayList<>(gap);
+        missed.addAll(channel.after(after));
+        return missed;
+    }
+
+    // ------------------ Connections ------------------
+
+    private void schedule(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(connection));
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            Object next;
+            while ((next = connection.queue.poll()) != null) {
+                if (next instanceof Notification notification) {
+                    connection.emitter.send(SseEmitter.event()
+                            .id(notification.getId().toString())
+                            .name("notification")
+                            .data(notification, MediaType.APPLICATION_JSON));
+                } else {
+                    connection.emitter.send(SseEmitter.event().comment("keepalive"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter's completion callback unregisters it
+            connection.queue.clear();
+            connection.emitter.completeWithError(e);
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        if (!connection.queue.isEmpty()) {
+            schedule(connection);
+        }
+    }
+
+    private void close(Channel channel, Connection connection) {
+        remove(channel, connection);
+        try {
+            connection.emitter.complete();
+        } catch (Exception ignored) {
+            // Already completed
+        }
+    }
+
+    private void remove(Channel channel, Connection connection) {
+        synchronized (channel) {
+            channel.connections.remove(connection);
+            channel.lastActive = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Keep idle streams open through proxies, and drop channels nobody has used for a while.
+     */
+    @Scheduled(fixedDelayString = "${notifications.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long idleCutoff = System.currentTimeMillis() - channelIdleMs;
+        for (Map.Entry<String, Channel> entry : channels.entrySet()) {
+            Channel channel = entry.getValue();
+            List<Connection> connections;
+            synchronized (channel) {
+                if (channel.connections.isEmpty() && channel.waiters.isEmpty() && channel.lastActive < idleCutoff) {
+                    channels.remove(entry.getKey(), channel);
+                    continue;
+                }
+                connections = new ArrayList<>(channel.connections);
+            }
+            for (Connection connection : connections) {
+                if (connection.offerHeartbeat()) {
+                    schedule(connection);
+                }
+            }
+        }
+    }
+
+    public PushStats stats() {
+        int connections = 0;
+        int waiters = 0;
+        for (Channel channel : channels.values()) {
+            synchronized (channel) {
+                connections += channel.connections.size();
+                waiters += channel.waiters.size();
+            }
+        }
+        return new PushStats(channels.size(), connections, waiters);
+    }
+
+    // ------------------ Internals ------------------
+
+    private Channel channel(Long userId, String role) {
+        return channels.computeIfAbsent(key(role, userId), k -> new Channel(replaySize));
+    }
+
+    private static String key(String role, Long userId) {
+        return String.valueOf(role).toUpperCase() + ":" + userId;
+    }
+
+    /**
+     * Connections and recent notifications of one (role, user). Guarded by itself.
+     */
+    private static final class Channel {
+        final int replaySize;
+        final Deque<Notification> recent = new ArrayDeque<>();
+        final List<Connection> connections = new ArrayList<>(2);
+        final List<DeferredResult<List<Notification>>> waiters = new ArrayList<>(1);
+        // Every notification with an id above this went through the channel
+        long coveredAfterId = Long.MAX_VALUE;
+        long lastActive = System.currentTimeMillis();
+
+        Channel(int replaySize) {
+            this.replaySize = replaySize;
+        }
+
+        void remember(Notification notification) {
+            if (coveredAfterId == Long.MAX_VALUE) {
+                coveredAfterId = notification.getId() - 1;
+            }
+            recent.addLast(notification);
+            if (recent.size() > replaySize) {
+                coveredAfterId = recent.removeFirst().getId();
+            }
+        }
+
+        boolean covers(long lastId) {
+            return lastId >= coveredAfterId;
+        }
+
+        List<Notification> after(long lastId) {
+            List<Notification> result = new ArrayList<>();
+            for (Notification notification : recent) {
+                if (notification.getId() > lastId) result.add(notification);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * One SSE stream with its bounded send queue (notifications, or a heartbeat marker).
+     */
+    private static final class Connection {
+        private static final Object HEARTBEAT = new Object();
+
+        final SseEmitter emitter;
+        final BlockingQueue<Object> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Connection(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        boolean offer(Notification notification) {
+            return queue.offer(notification);
+        }
+
+        // Skipped when data is already waiting to go out
+        boolean offerHeartbeat() {
+            return queue.isEmpty() && queue.offer(HEARTBEAT);
+        }
+    }
+}
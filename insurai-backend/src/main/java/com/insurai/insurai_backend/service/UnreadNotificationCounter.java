@@ -0,0 +1,128 @@
+package com.insurai.insurai_backend.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.insurai.insurai_backend.repository.NotificationRepository;
+
+/**
+ * Unread in-app notification counts per (role, user), kept in memory for the badge.
+ *
+ * A user's counter is seeded with one {@code COUNT} query the first time it is asked
+ * for; after that {@link InAppNotificationService} moves it on create, mark-as-read and
+ * delete (after commit), so reading it touches no rows. Changes for users without a
+ * counter are skipped; their first read counts them.
+ *
+ * Counters are only moved by this instance, so each one is re-seeded once it is
+ * {@code notifications.unread.reseed-after-ms} old; that also evens out a change
+ * that commits while its seed query runs. Counters past that age are dropped, and at
+ * most {@code notifications.unread.max-counters} are kept (reads beyond that just
+ * count); only the EMPLOYEE, HR and ADMIN roles get one.
+ */
+@Service
+public class UnreadNotificationCounter {
+
+    private static final Set<String> ROLES = Set.of("EMPLOYEE", "HR", "ADMIN");
+
+    private final NotificationRepository notificationRepository;
+    private final long reseedAfterMs;
+    private final int maxCounters;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                     @Value("${notifications.unread.reseed-after-ms:600000}") long reseedAfterMs,
+                                     @Value("${notifications.unread.max-counters:100000}") int maxCounters) {
+        this.notificationRepository = notificationRepository;
+        this.reseedAfterMs = reseedAfterMs;
+        this.maxCounters = maxCounters;
+    }
+
+    public static boolean isKnownRole(String role) {
+        return role != null && ROLES.contains(role.toUpperCase());
+    }
+
+    private static final class Counter {
+        final long seededAt = System.currentTimeMillis();
+        long unread;
+
+        Counter(long unread) {
+            this.unread = unread;
+        }
+    }
+
+    /**
+     * Unread notifications of a user in a role.
+     */
+    public long get(Long userId, String role) {
+        String key = key(role, userId);
+        long now = System.currentTimeMillis();
+        Counter counter = counters.get(key);
+        if (counter == null || now - counter.seededAt > reseedAfterMs) {
+            long unread = notificationRepository.countByTargetIdAndTargetRoleAndReadStatusFalse(userId, role);
+            if (!isKnownRole(role) || (counter == null && counters.size() >= maxCounters)) {
+                return unread;
+            }
+            counter = new Counter(unread);
+            counters.put(key, counter);
+        }
+        synchronized (counter) {
+            return counter.unread;
+        }
+    }
+
+    /**
+     * Move a user's counter by {@code delta} once the current transaction commits
+     * (right away if there is none).
+     */
+    public void add(Long userId, String role, long delta) {
+        if (userId == null || role == null || delta == 0) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, role, delta);
+                }
+            });
+        } else {
+            apply(userId, role, delta);
+        }
+    }
+
+    /**
+     * Drop a user's counter so the next read counts again (after changes whose effect
+     * on the unread count is not known, such as a bulk delete).
+     */
+    public void invalidate(Long userId, String role) {
+        if (userId == null || role == null) return;
+        counters.remove(key(role, userId));
+    }
+
+    /**
+     * Drop counters that are due for a re-seed anyway, so the map only holds users read recently.
+     */
+    @Scheduled(fixedDelayString = "${notifications.unread.reseed-after-ms:600000}")
+    public void evictStale() {
+        long cutoff = System.currentTimeMillis() - reseedAfterMs;
+        counters.values().removeIf(counter -> counter.seededAt < cutoff);
+    }
+
+    private void apply(Long userId, String role, long delta) {
+        Counter counter = counters.get(key(role, userId));
+        if (counter == null) return;
+        synchronized (counter) {
+            counter.unread = Math.max(0, counter.unread + delta);
+        }
+    }
+
+    private static String key(String role, Long userId) {
+        return String.valueOf(role).toUpperCase() + ":" + userId;
+    }
+}
@@ -20,6 +20,7 @@ public class UserManagementService {
     private final EmployeeRepository employeeRepository;
     private final AgentRepository agentRepository;
     private final HrRepository hrRepository;
+    private final HrLoadTracker hrLoadTracker;
 
     public void updateUserStatus(UpdateStatusRequest request) {
 
@@ -55,7 +56,7 @@ public class UserManagementService {
                     .ifPresentOrElse(hr -> {
                         validateTransition(hr.getStatus(), newStatus);
                         hr.setStatus(newStatus);
-                        hrRepository.save(hr);
+                        hrLoadTracker.hrUpdated(hrRepository.save(hr));
                     }, () -> {
                         throw new UserNotFoundException("HR not found with id: " + id);
                     });
@@ -0,0 +1,97 @@
+package com.insurai.insurai_backend.service.fraud;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.model.DocumentFingerprint;
+import com.insurai.insurai_backend.repository.DocumentFingerprintRepository;
+
+/**
+ * Tenant-wide index of uploaded document hashes.
+ *
+ * An in-memory Bloom filter answers "never seen" without touching the database;
+ * only possible hits are confirmed with one indexed probe on document_fingerprints.
+ */
+@Service
+public class DocumentFingerprintIndex {
+
+    private static final int WARMUP_BATCH_SIZE = 5000;
+
+    private final DocumentFingerprintRepository fingerprintRepository;
+    private final FingerprintBloomFilter bloomFilter;
+
+    // Until the filter is warmed up every lookup goes to the database
+    private volatile boolean warmedUp = false;
+
+    public DocumentFingerprintIndex(DocumentFingerprintRepository fingerprintRepository,
+                                    @Value("${fraud.fingerprint.bloom.expected-insertions:1000000}") long expectedInsertions,
+                                    @Value("${fraud.fingerprint.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.fingerprintRepository = fingerprintRepository;
+        this.bloomFilter = new FingerprintBloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long afterId = 0;
+        long loaded = 0;
+        List<DocumentFingerprint> batch;
+        do {
+            batch = fingerprintRepository.findNextBatch(afterId, PageRequest.of(0, WARMUP_BATCH_SIZE));
+            for (DocumentFingerprint f : batch) {
+                bloomFilter.put(f.getSha256());
+                afterId = f.getId();
+            }
+            loaded += batch.size();
+        } while (batch.size() == WARMUP_BATCH_SIZE);
+
+        warmedUp = true;
+        System.out.println("✅ Document fingerprint index ready (" + loaded + " fingerprints)");
+    }
+
+    /**
+     * True if any of the given hashes belongs to a document already uploaded by anyone.
+     */
+    public boolean anyKnown(Collection<String> hashes) {
+        if (hashes == null || hashes.isEmpty()) return false;
+
+        List<String> candidates = new ArrayList<>();
+        for (String h : hashes) {
+            if (!warmedUp || bloomFilter.mightContain(h)) {
+                candidates.add(h);
+            }
+        }
+        return !candidates.isEmpty() && fingerprintRepository.existsBySha256In(candidates);
+    }
+
+    /**
+     * Persist the fingerprints of documents uploaded with a saved claim.
+     */
+    public void register(Claim claim) {
+        Map<String, String> uploaded = claim.getDocumentFingerprints();
+        if (claim.getId() == null || uploaded == null || uploaded.isEmpty()) return;
+
+        Long employeeId = claim.getEmployee() != null ? claim.getEmployee().getId() : null;
+        List<DocumentFingerprint> rows = new ArrayList<>();
+        uploaded.forEach((path, sha256) -> {
+            DocumentFingerprint f = new DocumentFingerprint();
+            f.setSha256(sha256);
+            f.setClaimId(claim.getId());
+            f.setEmployeeId(employeeId);
+            f.setDocumentPath(path);
+            f.setCreatedAt(LocalDateTime.now());
+            rows.add(f);
+        });
+        fingerprintRepository.saveAll(rows);
+        rows.forEach(f -> bloomFilter.put(f.getSha256()));
+    }
+}
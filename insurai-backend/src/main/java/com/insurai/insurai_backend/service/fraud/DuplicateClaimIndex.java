@@ -0,0 +1,169 @@
+package com.insurai.insurai_backend.service.fraud;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+
+/**
+ * Exact duplicate-claim detection on the persisted {@code claims.duplicate_key}.
+ *
+ * A concurrent map of recently reserved keys sits in front of the indexed column:
+ * the first submit of a key wins {@code putIfAbsent}, so a second request racing it
+ * (e.g. a double-click) is flagged even before the first one is committed. Only the
+ * request that won a reservation can release it (compare-and-remove on its time).
+ */
+@Service
+public class DuplicateClaimIndex {
+
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final ClaimRepository claimRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxRecentKeys;
+    private final long recentKeyTtlMillis;
+
+    // key -> reservation time (millis)
+    private final Map<String, Long> recentKeys = new ConcurrentHashMap<>();
+
+    public DuplicateClaimIndex(ClaimRepository claimRepository,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${fraud.duplicate.recent-keys.max-size:100000}") int maxRecentKeys,
+                               @Value("${fraud.duplicate.recent-keys.ttl-minutes:1440}") long ttlMinutes) {
+        this.claimRepository = claimRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxRecentKeys = maxRecentKeys;
+        this.recentKeyTtlMillis = ttlMinutes * 60_000;
+    }
+
+    // ------------------ Keys ------------------
+
+    public static String keyFor(Claim claim) {
+        if (claim.getEmployee() == null || claim.getPolicy() == null
+                || claim.getAmount() == null || claim.getClaimDate() == null) {
+            return null;
+        }
+        return keyFor(claim.getEmployee().getId(), claim.getPolicy().getId(), claim.getAmount(),
+                claim.getClaimDate().toLocalDate());
+    }
+
+    public static String keyFor(Long employeeId, Long policyId, Double amount, LocalDate claimDay) {
+        // Normalize the amount so 1500, 1500.0 and 1500.00 produce the same key
+        String normalizedAmount = BigDecimal.valueOf(amount).stripTrailingZeros().toPlainString();
+        return employeeId + "|" + policyId + "|" + normalizedAmount + "|" + claimDay;
+    }
+
+    // ------------------ Lookups ------------------
+
+    /**
+     * Reserve the key of a claim about to be saved. When this call wins the reservation,
+     * its time is kept on the claim for {@link #release(Claim)}.
+     *
+     * @return true if the key is already taken (recent reservation or stored claim)
+     */
+    public boolean reserve(Claim claim) {
+        if (reserveRecent(claim)) return true;
+        return claim.getDuplicateKey() != null && claimRepository.existsByDuplicateKey(claim.getDuplicateKey());
+    }
+
+    /**
+     * Reserve the key in memory only, for callers that already hold the stored keys
+     * (batch ingestion loads every employee's claims up front).
+     *
+     * @return true if a live reservation already holds the key
+     */
+    public boolean reserveRecent(Claim claim) {
+        String key = claim.getDuplicateKey();
+        claim.setDuplicateKeyReservedAt(null);
+        if (key == null) return false;
+
+        long now = System.currentTimeMillis();
+        Long previous = recentKeys.putIfAbsent(key, now);
+        if (previous != null && now - previous < recentKeyTtlMillis) {
+            return true;
+        }
+        if (previous != null && !recentKeys.replace(key, previous, now)) {
+            return true; // another request took the expired reservation over first
+        }
+        claim.setDuplicateKeyReservedAt(now);
+        if (recentKeys.size() > maxRecentKeys) {
+            evict(now);
+        }
+        return false;
+    }
+
+    /**
+     * Drop the reservation of a claim that was not saved, if this claim's request made it.
+     */
+    public void release(Claim claim) {
+        Long reservedAt = claim.getDuplicateKeyReservedAt();
+        if (claim.getDuplicateKey() != null && reservedAt != null) {
+            recentKeys.remove(claim.getDuplicateKey(), reservedAt);
+        }
+        claim.setDuplicateKeyReservedAt(null);
+    }
+
+    /**
+     * Drop the reservation of a key a stored claim no longer has (changed on edit).
+     */
+    public void release(String key) {
+        if (key != null) {
+            recentKeys.remove(key);
+        }
+    }
+
+    // Expired reservations first; if the map is still over its limit, the oldest live ones
+    // (the column still catches those duplicates once their claims are committed)
+    private void evict(long now) {
+        recentKeys.values().removeIf(reservedAt -> now - reservedAt >= recentKeyTtlMillis);
+        int excess = recentKeys.size() - maxRecentKeys * 9 / 10;
+        if (excess <= 0) return;
+        List<Entry<String, Long>> oldest = new ArrayList<>(recentKeys.entrySet());
+        oldest.sort(Entry.comparingByValue());
+        for (int i = 0; i < excess && i < oldest.size(); i++) {
+            recentKeys.remove(oldest.get(i).getKey(), oldest.get(i).getValue());
+        }
+    }
+
+    // ------------------ Backfill ------------------
+
+    /**
+     * Compute keys for claims stored before the column existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingKeys() {
+        long updated = 0;
+        List<Object[]> rows;
+        do {
+            // Always page 0: updated rows drop out of the result
+            rows = claimRepository.findMissingDuplicateKeys(PageRequest.of(0, BACKFILL_BATCH_SIZE));
+            List<Object[]> batch = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                LocalDate claimDay = ((LocalDateTime) row[4]).toLocalDate();
+                batch.add(new Object[] { keyFor((Long) row[1], (Long) row[2], (Double) row[3], claimDay), row[0] });
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE claims SET duplicate_key = ? WHERE id = ?", batch);
+                updated += batch.size();
+            }
+        } while (rows.size() == BACKFILL_BATCH_SIZE);
+
+        if (updated > 0) {
+            System.out.println("✅ Backfilled duplicate keys for " + updated + " claims");
+        }
+    }
+}
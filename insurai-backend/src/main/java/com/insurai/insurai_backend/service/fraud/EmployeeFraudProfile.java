@@ -0,0 +1,188 @@
+package com.insurai.insurai_backend.service.fraud;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.insurai.insurai_backend.model.Claim;
+
+/**
+ * Running fraud aggregate for a single employee.
+ *
+ * Keeps exactly the numbers the fraud rules need (rolling 7-day submission count,
+ * running mean amount, 30-day per-title counters, duplicate keys)
+ * so a new claim can be scored without reloading the employee's claim history.
+ *
+ * Window queries evict expired entries as they go, so the {@code asOf} passed in
+ * is expected to be non-decreasing for a given profile.
+ */
+public class EmployeeFraudProfile {
+
+    // Last recorded features per claim, used to back out old values on update
+    private final Map<Long, ClaimFeatures> claims = new HashMap<>();
+
+    private long claimCount;
+    private double amountSum;
+
+    // createdAt of claims still inside the 7-day window (min-heap)
+    private final PriorityQueue<LocalDateTime> recentSubmissions = new PriorityQueue<>();
+
+    // claimDate of claims per normalized title, still inside the 30-day window
+    private final Map<String, PriorityQueue<LocalDateTime>> titleClaimDates = new HashMap<>();
+
+    // Multiset: duplicate key -> number of claims carrying it
+    private final Map<String, Integer> duplicateKeys = new HashMap<>();
+
+    private long syntheticId = 0;
+
+    /**
+     * Build a throwaway profile from an already loaded claim list.
+     */
+    public static EmployeeFraudProfile of(List<Claim> employeeClaims) {
+        EmployeeFraudProfile profile = new EmployeeFraudProfile();
+        for (Claim c : employeeClaims) {
+            profile.record(c);
+        }
+        return profile;
+    }
+
+    // ------------------ Updates ------------------
+
+    /**
+     * Insert or replace a claim's contribution. Safe to call again for the same claim
+     * (e.g. after an edit or a status change).
+     */
+    public synchronized void record(Claim claim) {
+        Long key = claim.getId() != null ? claim.getId() : --syntheticId;
+        ClaimFeatures previous = claims.remove(key);
+        if (previous != null) {
+            remove(previous);
+        }
+        ClaimFeatures features = ClaimFeatures.from(claim);
+        claims.put(key, features);
+        add(features);
+    }
+
+    public synchronized void forget(Long claimId) {
+        ClaimFeatures previous = claims.remove(claimId);
+        if (previous != null) {
+            remove(previous);
+        }
+    }
+
+    private void add(ClaimFeatures f) {
+        claimCount++;
+        amountSum += f.amount;
+        if (f.createdAt != null) {
+            recentSubmissions.add(f.createdAt);
+        }
+        if (f.titleKey != null && f.claimDate != null) {
+            titleClaimDates.computeIfAbsent(f.titleKey, t -> new PriorityQueue<>()).add(f.claimDate);
+        }
+        if (f.duplicateKey != null) {
+            duplicateKeys.merge(f.duplicateKey, 1, Integer::sum);
+        }
+    }
+
+    private void remove(ClaimFeatures f) {
+        claimCount--;
+        amountSum -= f.amount;
+        if (f.createdAt != null) {
+            recentSubmissions.remove(f.createdAt);
+        }
+        if (f.titleKey != null && f.claimDate != null) {
+            PriorityQueue<LocalDateTime> dates = titleClaimDates.get(f.titleKey);
+            if (dates != null) {
+                dates.remove(f.claimDate);
+                if (dates.isEmpty()) titleClaimDates.remove(f.titleKey);
+            }
+        }
+        if (f.duplicateKey != null) {
+            decrement(duplicateKeys, f.duplicateKey);
+        }
+    }
+
+    private static void decrement(Map<String, Integer> multiset, String key) {
+        multiset.computeIfPresent(key, (k, n) -> n > 1 ? n - 1 : null);
+    }
+
+    // ------------------ Reads used by the fraud rules ------------------
+
+    public synchronized boolean hasDuplicate(Long policyId, Double amount, LocalDate claimDay) {
+        return duplicateKeys.containsKey(duplicateKey(policyId, amount, claimDay));
+    }
+
+    /** Number of claims submitted strictly after {@code since}. */
+    public synchronized int countSubmittedAfter(LocalDateTime since) {
+        while (!recentSubmissions.isEmpty() && !recentSubmissions.peek().isAfter(since)) {
+            recentSubmissions.poll();
+        }
+        return recentSubmissions.size();
+    }
+
+    /** Number of claims with the same title (case-insensitive) whose claim date is after {@code since}. */
+    public synchronized int countTitleAfter(String title, LocalDateTime since) {
+        if (title == null) return 0;
+        String key = title.toLowerCase();
+        PriorityQueue<LocalDateTime> dates = titleClaimDates.get(key);
+        if (dates == null) return 0;
+        while (!dates.isEmpty() && !dates.peek().isAfter(since)) {
+            dates.poll();
+        }
+        if (dates.isEmpty()) {
+            titleClaimDates.remove(key);
+            return 0;
+        }
+        return dates.size();
+    }
+
+    public synchronized double averageAmount() {
+        return claimCount > 0 ? amountSum / claimCount : 0;
+    }
+
+    public synchronized long getClaimCount() {
+        return claimCount;
+    }
+
+    // ------------------ Keys ------------------
+
+    static String duplicateKey(Long policyId, Double amount, LocalDate claimDay) {
+        return policyId + "|" + amount + "|" + claimDay;
+    }
+
+    /**
+     * Immutable snapshot of the claim fields the profile aggregates.
+     */
+    private static final class ClaimFeatures {
+        final double amount;
+        final LocalDateTime createdAt;
+        final LocalDateTime claimDate;
+        final String titleKey;
+        final String duplicateKey;
+
+        private ClaimFeatures(double amount, LocalDateTime createdAt, LocalDateTime claimDate,
+                              String titleKey, String duplicateKey) {
+            this.amount = amount;
+            this.createdAt = createdAt;
+            this.claimDate = claimDate;
+            this.titleKey = titleKey;
+            this.duplicateKey = duplicateKey;
+        }
+
+        static ClaimFeatures from(Claim c) {
+            Long policyId = c.getPolicy() != null ? c.getPolicy().getId() : null;
+            LocalDate claimDay = c.getClaimDate() != null ? c.getClaimDate().toLocalDate() : null;
+            return new ClaimFeatures(
+                    c.getAmount() != null ? c.getAmount() : 0,
+                    c.getCreatedAt(),
+                    c.getClaimDate(),
+                    c.getTitle() != null ? c.getTitle().toLowerCase() : null,
+                    policyId != null && c.getAmount() != null && claimDay != null
+                            ? duplicateKey(policyId, c.getAmount(), claimDay) : null
+            );
+        }
+    }
+}
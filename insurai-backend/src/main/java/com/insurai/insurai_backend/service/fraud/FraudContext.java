@@ -0,0 +1,42 @@
+package com.insurai.insurai_backend.service.fraud;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+import com.insurai.insurai_backend.model.Claim;
+
+/**
+ * Inputs shared by all fraud rules while one claim is evaluated.
+ */
+public class FraudContext {
+
+    private final Claim claim;
+    private final EmployeeFraudProfile profile;
+    private final LocalDateTime asOf;
+    private final LocalDate claimDay;
+    private final Boolean knownDuplicate;
+    private final Predicate<Claim> documentReusedOverride;
+
+    public FraudContext(Claim claim, EmployeeFraudProfile profile, Boolean knownDuplicate,
+                        Predicate<Claim> documentReusedOverride) {
+        this.claim = claim;
+        this.profile = profile;
+        // Rules are evaluated as of the claim's submission time
+        this.asOf = claim.getCreatedAt() != null ? claim.getCreatedAt() : LocalDateTime.now();
+        this.claimDay = claim.getClaimDate().toLocalDate();
+        this.knownDuplicate = knownDuplicate;
+        this.documentReusedOverride = documentReusedOverride;
+    }
+
+    public Claim getClaim() { return claim; }
+    public EmployeeFraudProfile getProfile() { return profile; }
+    public LocalDateTime getAsOf() { return asOf; }
+    public LocalDate getClaimDay() { return claimDay; }
+
+    /** Result of the duplicate-key reservation on submit, or null to check the profile instead. */
+    public Boolean getKnownDuplicate() { return knownDuplicate; }
+
+    /** Reused-document check supplied by the caller (bulk re-scan), or null to use the fingerprint index. */
+    public Predicate<Claim> getDocumentReusedOverride() { return documentReusedOverride; }
+}
@@ -0,0 +1,58 @@
+package com.insurai.insurai_backend.service.fraud;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Per-employee fraud aggregates kept in memory.
+ *
+ * A profile is seeded with one history query the first time an employee is seen
+ * and is then maintained incrementally from {@code ClaimService}, so fraud scoring
+ * on submit no longer depends on the size of the employee's history.
+ */
+@Service
+@RequiredArgsConstructor
+public class FraudFeatureStore {
+
+    private final ClaimRepository claimRepository;
+
+    private final Map<Long, EmployeeFraudProfile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Get (and seed if needed) the profile for an employee.
+     */
+    public EmployeeFraudProfile profileFor(Long employeeId) {
+        // computeIfAbsent keeps concurrent record() calls for this employee waiting
+        // until the seed is in place, so no claim saved meanwhile is lost
+        return profiles.computeIfAbsent(employeeId, this::load);
+    }
+
+    /**
+     * Apply a saved claim (new, edited or with a new status) to its employee's profile.
+     * Employees without a loaded profile are skipped; they are seeded on first use.
+     */
+    public void record(Claim claim) {
+        if (claim == null || claim.getId() == null || claim.getEmployee() == null) return;
+        profiles.computeIfPresent(claim.getEmployee().getId(), (id, profile) -> {
+            profile.record(claim);
+            return profile;
+        });
+    }
+
+    public void evict(Long employeeId) {
+        profiles.remove(employeeId);
+    }
+
+    private EmployeeFraudProfile load(Long employeeId) {
+        List<Claim> history = claimRepository.findByEmployee_Id(employeeId);
+        return EmployeeFraudProfile.of(history);
+    }
+}
@@ -0,0 +1,289 @@
+package com.insurai.insurai_backend.service.fraud;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.model.DocumentFingerprint;
+import com.insurai.insurai_backend.model.FraudRescanJob;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+import com.insurai.insurai_backend.repository.DocumentFingerprintRepository;
+import com.insurai.insurai_backend.repository.FraudRescanJobRepository;
+import com.insurai.insurai_backend.service.ClaimStatsService;
+import com.insurai.insurai_backend.service.ClaimStatsService.ClaimView;
+import com.insurai.insurai_backend.service.FraudService;
+import com.insurai.insurai_backend.service.search.ClaimSearchIndex;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Re-scores every stored claim with the current fraud rules.
+ *
+ * Claims are read in id-ordered keyset pages; each page is partitioned by employee
+ * and the partitions are scored in parallel on a fork-join pool, each against a
+ * job-local {@link EmployeeFraudProfile} built up in id order. Only claims whose
+ * flag or reason changed are written back, as one JDBC batch per page, and are then
+ * re-indexed for search from the stored rows and moved in the dashboard counters. The job row is checkpointed after every
+ * page so a restart resumes where it stopped.
+ */
+@Service
+public class FraudRescanService {
+
+    private static final String RUNNING = "RUNNING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+
+    // Bumps the @Version so an edit saved from a copy loaded before the re-scan fails instead of reverting it
+    private static final String UPDATE_SQL = "UPDATE claims SET fraud_flag = ?, fraud_reason = ?,"
+            + " version = version + 1 WHERE id = ?";
+
+    private final ClaimRepository claimRepository;
+    private final DocumentFingerprintRepository fingerprintRepository;
+    private final FraudRescanJobRepository jobRepository;
+    private final FraudService fraudService;
+    private final ClaimSearchIndex claimSearchIndex;
+    private final ClaimStatsService claimStatsService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int pageSize;
+
+    private final ForkJoinPool scoringPool;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fraud-rescan");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Progress of the run executing in this process
+    private volatile Long activeJobId;
+    private volatile LocalDateTime runStartedAt;
+    private final AtomicLong processedThisRun = new AtomicLong();
+
+    public FraudRescanService(ClaimRepository claimRepository,
+                              DocumentFingerprintRepository fingerprintRepository,
+                              FraudRescanJobRepository jobRepository,
+                              FraudService fraudService,
+                              ClaimSearchIndex claimSearchIndex,
+                              ClaimStatsService claimStatsService,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${fraud.rescan.page-size:1000}") int pageSize,
+                              @Value("${fraud.rescan.parallelism:0}") int parallelism) {
+        this.claimRepository = claimRepository;
+        this.fingerprintRepository = fingerprintRepository;
+        this.jobRepository = jobRepository;
+        this.fraudService = fraudService;
+        this.claimSearchIndex = claimSearchIndex;
+        this.claimStatsService = claimStatsService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pageSize = pageSize;
+        this.scoringPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // ------------------ Start / resume ------------------
+
+    /**
+     * Start a new re-scan. Fails if one is already running.
+     */
+    public synchronized FraudRescanJob startRescan(String triggeredBy) {
+        if (activeJobId != null || jobRepository.findTopByStatusOrderByIdDesc(RUNNING).isPresent()) {
+            throw new IllegalStateException("A fraud re-scan is already running");
+        }
+
+        FraudRescanJob job = new FraudRescanJob();
+        job.setStatus(RUNNING);
+        job.setTriggeredBy(triggeredBy);
+        job.setTotalClaims(claimRepository.count());
+        job.setStartedAt(LocalDateTime.now());
+        job.setUpdatedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+
+        launch(job);
+        return job;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void resumeInterruptedJob() {
+        jobRepository.findTopByStatusOrderByIdDesc(RUNNING).ifPresent(job -> {
+            System.out.println("🔁 Resuming fraud re-scan #" + job.getId() + " after claim " + job.getLastClaimId());
+            launch(job);
+        });
+    }
+
+    private void launch(FraudRescanJob job) {
+        activeJobId = job.getId();
+        runStartedAt = LocalDateTime.now();
+        processedThisRun.set(0);
+        coordinator.submit(() -> run(job));
+    }
+
+    // ------------------ Job loop ------------------
+
+    private void run(FraudRescanJob job) {
+        // Claims at or below this id were scored before a restart; profiles are seeded from them lazily
+        long resumedFrom = job.getLastClaimId();
+        Map<Long, EmployeeFraudProfile> profiles = new ConcurrentHashMap<>();
+
+        try {
+            List<Claim> page;
+            do {
+                page = claimRepository.findRescanBatch(job.getLastClaimId(), PageRequest.of(0, pageSize));
+                if (page.isEmpty()) break;
+
+                List<Rescored> changes = scorePage(page, profiles, resumedFrom);
+                if (!changes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, changes.stream()
+                            .map(c -> new Object[] { c.fraud(), c.reason(), c.claimId() }).toList());
+                    // fraud_reason is searchable
+                    claimSearchIndex.reindex(changes.stream().map(Rescored::claimId).toList());
+                    for (Rescored change : changes) {
+                        claimStatsService.changed(change.before(), change.before().withFraud(change.fraud()));
+                    }
+                }
+
+                processedThisRun.addAndGet(page.size());
+                job.setLastClaimId(page.get(page.size() - 1).getId());
+                job.setProcessedCount(job.getProcessedCount() + page.size());
+                job.setChangedCount(job.getChangedCount() + changes.size());
+                job.setUpdatedAt(LocalDateTime.now());
+                job = jobRepository.save(job);
+            } while (page.size() == pageSize);
+
+            job.setStatus(COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            System.out.println("✅ Fraud re-scan #" + job.getId() + " completed: "
+                    + job.getProcessedCount() + " claims, " + job.getChangedCount() + " changed");
+        } catch (Exception e) {
+            System.err.println("❌ Fraud re-scan #" + job.getId() + " failed: " + e.getMessage());
+            job.setStatus(FAILED);
+            job.setError(e.getMessage());
+            job.setFinishedAt(LocalDateTime.now());
+        } finally {
+            job.setUpdatedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            activeJobId = null;
+        }
+    }
+
+    // A claim whose fraud result changed, with its counter view from before the re-scan
+    private record Rescored(Long claimId, boolean fraud, String reason, ClaimView before) {}
+
+    /**
+     * Score one page and return the claims whose result needs writing back.
+     */
+    private List<Rescored> scorePage(List<Claim> page, Map<Long, EmployeeFraudProfile> profiles, long resumedFrom)
+            throws Exception {
+        Map<String, Long> firstUseByHash = new HashMap<>();
+        Map<Long, List<String>> hashesByClaim = loadFingerprints(page, firstUseByHash);
+
+        // Partition by employee, keeping id order inside each partition
+        Map<Long, List<Claim>> byEmployee = page.stream()
+                .collect(Collectors.groupingBy(c -> c.getEmployee().getId(), LinkedHashMap::new, Collectors.toList()));
+
+        ConcurrentLinkedQueue<Rescored> changes = new ConcurrentLinkedQueue<>();
+        scoringPool.submit(() -> byEmployee.entrySet().parallelStream().forEach(entry -> {
+            EmployeeFraudProfile profile = profiles.computeIfAbsent(entry.getKey(), employeeId -> resumedFrom > 0
+                    ? EmployeeFraudProfile.of(claimRepository.findByEmployee_IdAndIdLessThanEqual(employeeId, resumedFrom))
+                    : new EmployeeFraudProfile());
+
+            for (Claim claim : entry.getValue()) {
+                ClaimView before = ClaimView.of(claim);
+                boolean oldFlag = claim.isFraud();
+                String oldReason = claim.getFraudReason();
+
+                fraudService.runFraudDetection(claim, profile,
+                        c -> reusedEarlier(c.getId(), hashesByClaim.get(c.getId()), firstUseByHash));
+                profile.record(claim);
+
+                if (oldFlag != claim.isFraud() || !Objects.equals(oldReason, claim.getFraudReason())) {
+                    changes.add(new Rescored(claim.getId(), claim.isFraud(), claim.getFraudReason(), before));
+                }
+            }
+        })).get();
+
+        return new ArrayList<>(changes);
+    }
+
+    /**
+     * Load the page's fingerprints (claimId -> hashes) and fill {@code firstUseByHash} with the
+     * lowest claim id each of those hashes appears on. Two queries per page.
+     */
+    private Map<Long, List<String>> loadFingerprints(List<Claim> page, Map<String, Long> firstUseByHash) {
+        List<Long> ids = page.stream().map(Claim::getId).collect(Collectors.toList());
+        Map<Long, List<String>> hashesByClaim = new HashMap<>();
+        for (DocumentFingerprint f : fingerprintRepository.findByClaimIdIn(ids)) {
+            hashesByClaim.computeIfAbsent(f.getClaimId(), id -> new ArrayList<>()).add(f.getSha256());
+        }
+
+        Set<String> hashes = hashesByClaim.values().stream().flatMap(List::stream).collect(Collectors.toSet());
+        if (!hashes.isEmpty()) {
+            for (Object[] row : fingerprintRepository.findFirstClaimIds(hashes)) {
+                firstUseByHash.put((String) row[0], (Long) row[1]);
+            }
+        }
+        return hashesByClaim;
+    }
+
+    private static boolean reusedEarlier(Long claimId, List<String> hashes, Map<String, Long> firstUse) {
+        if (hashes == null) return false;
+        for (String h : hashes) {
+            Long first = firstUse.get(h);
+            if (first != null && first < claimId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ------------------ Status ------------------
+
+    public RescanStatus getStatus() {
+        FraudRescanJob job = jobRepository.findTopByOrderByIdDesc().orElse(null);
+        if (job == null) return null;
+
+        double claimsPerSecond = 0;
+        if (job.getId().equals(activeJobId) && runStartedAt != null) {
+            double seconds = Duration.between(runStartedAt, LocalDateTime.now()).toMillis() / 1000.0;
+            claimsPerSecond = seconds > 0 ? processedThisRun.get() / seconds : 0;
+        } else if (job.getFinishedAt() != null && job.getStartedAt() != null) {
+            double seconds = Duration.between(job.getStartedAt(), job.getFinishedAt()).toMillis() / 1000.0;
+            claimsPerSecond = seconds > 0 ? job.getProcessedCount() / seconds : 0;
+        }
+
+        double percent = job.getTotalClaims() > 0
+                ? Math.min(100.0, job.getProcessedCount() * 100.0 / job.getTotalClaims()) : 100.0;
+
+        return new RescanStatus(job.getId(), job.getStatus(), job.getProcessedCount(), job.getTotalClaims(),
+                percent, job.getChangedCount(), claimsPerSecond, job.getLastClaimId(),
+                job.getStartedAt(), job.getUpdatedAt(), job.getFinishedAt(), job.getError());
+    }
+
+    public record RescanStatus(Long jobId, String status, long processed, long totalClaims, double percentComplete,
+                               long changed, double claimsPerSecond, Long lastClaimId, LocalDateTime startedAt,
+                               LocalDateTime updatedAt, LocalDateTime finishedAt, String error) {}
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        scoringPool.shutdownNow();
+    }
+}
@@ -0,0 +1,373 @@
+package com.insurai.insurai_backend.service.fraud;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.model.DocumentFingerprint;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+import com.insurai.insurai_backend.repository.DocumentFingerprintRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cross-employee claim graph used to surface fraud rings.
+ *
+ * Two claims are linked when they share a document fingerprint, or when they have the
+ * same normalized title on the same day and amounts within {@code AMOUNT_TOLERANCE}
+ * of each other. Connected components are kept with union-find over primitive arrays
+ * (union by size, path halving), so adding a claim costs amortized near-constant time.
+ *
+ * A key shared by claims of more than {@code fraud.ring.max-employees-per-key}
+ * employees (a common title on a busy day, a company-wide form) says nothing about
+ * collusion and links nothing. Each component tracks its distinct employees; one
+ * employee's own claims are not a ring, so only components spanning two or more
+ * employees are reported.
+ *
+ * Union-find cannot split a component, so an edited claim, or a key that just turned
+ * generic, marks the graph stale and it is rebuilt from the in-memory keys (no database
+ * reads). The graph is built from the database at startup and then updated from saved
+ * claims, all on one background thread; lookups in between may still see the old links.
+ */
+@Service
+public class FraudRingIndex {
+
+    private static final int BATCH_SIZE = 5000;
+
+    // Amounts at most this far apart count as "near-identical"
+    static final double AMOUNT_TOLERANCE = 10.0;
+
+    private final ClaimRepository claimRepository;
+    private final DocumentFingerprintRepository fingerprintRepository;
+    private final int maxEmployeesPerKey;
+
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fraud-ring-graph");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // ---- Union-find state (guarded by this) ----
+    private int nodeCount = 0;
+    private int[] parent = new int[1024];
+    private int[] size = new int[1024];
+    private long[] minClaimId = new long[1024];     // cluster id = smallest claim id, valid at roots
+    private final Map<Long, Integer> nodeByClaim = new HashMap<>();
+    private final Map<Integer, Set<Long>> employeesByRoot = new HashMap<>();
+
+    // ---- Per node (guarded by this) ----
+    private long[] claimIdOf = new long[1024];
+    private long[] employeeOf = new long[1024];     // 0 = not known yet
+    private double[] amountOf = new double[1024];
+    private String[] tupleOf = new String[1024];    // "title|day", null when the claim has none
+
+    // Link key ("t:" tuple or "d:" fingerprint) -> claims carrying it
+    private final Map<String, KeyGroup> groups = new HashMap<>();
+
+    // A rebuild of the components is queued on the builder thread
+    private boolean rebuildQueued;
+
+    public FraudRingIndex(ClaimRepository claimRepository,
+                          DocumentFingerprintRepository fingerprintRepository,
+                          @Value("${fraud.ring.max-employees-per-key:5}") int maxEmployeesPerKey) {
+        this.claimRepository = claimRepository;
+        this.fingerprintRepository = fingerprintRepository;
+        this.maxEmployeesPerKey = maxEmployeesPerKey;
+    }
+
+    private static final class KeyGroup {
+        final Set<Integer> nodes = new LinkedHashSet<>(4);
+        final Set<Long> employees = new HashSet<>(4);
+    }
+
+    // ------------------ Building ------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        builder.submit(() -> {
+            try {
+                loadClaims();
+                loadFingerprints();
+                System.out.println("✅ Fraud ring graph ready (" + nodeCount() + " claims)");
+            } catch (Exception e) {
+                System.err.println("❌ Fraud ring graph build failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private void loadClaims() {
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = claimRepository.findRingGraphBatch(afterId, PageRequest.of(0, BATCH_SIZE));
+            for (Object[] row : rows) {
+                Long claimId = (Long) row[0];
+                addClaim(claimId, (Long) row[4], tupleKey((String) row[1], (LocalDateTime) row[3]), (Double) row[2], null);
+                afterId = claimId;
+            }
+        } while (rows.size() == BATCH_SIZE);
+    }
+
+    private void loadFingerprints() {
+        long afterId = 0;
+        List<DocumentFingerprint> batch;
+        do {
+            batch = fingerprintRepository.findNextBatch(afterId, PageRequest.of(0, BATCH_SIZE));
+            for (DocumentFingerprint f : batch) {
+                addFingerprints(f.getClaimId(), List.of(f.getSha256()));
+                afterId = f.getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+    }
+
+    /**
+     * Queue a saved claim (and the fingerprints uploaded with it) for linking. A claim
+     * already in the graph has its title/amount/day link replaced.
+     */
+    public void onClaimSaved(Claim claim) {
+        if (claim == null || claim.getId() == null) return;
+
+        Long claimId = claim.getId();
+        Long employeeId = claim.getEmployee() != null ? claim.getEmployee().getId() : null;
+        String tuple = tupleKey(claim.getTitle(), claim.getClaimDate());
+        Double amount = claim.getAmount();
+        Collection<String> hashes = claim.getDocumentFingerprints() != null
+                ? new ArrayList<>(claim.getDocumentFingerprints().values()) : null;
+        builder.submit(() -> addClaim(claimId, employeeId, tuple, amount, hashes));
+    }
+
+    private synchronized void addClaim(Long claimId, Long employeeId, String tuple, Double amount,
+                                       Collection<String> hashes) {
+        if (claimId == null) return;
+        int node = nodeFor(claimId);
+        if (employeeId != null && employeeOf[node] == 0) {
+            employeeOf[node] = employeeId;
+            employeesByRoot.computeIfAbsent(find(node), root -> new HashSet<>()).add(employeeId);
+        }
+
+        double newAmount = amount != null ? amount : Double.NaN;
+        if (amount == null) tuple = null;
+        if (!Objects.equals(tupleOf[node], tuple) || Double.compare(amountOf[node], newAmount) != 0) {
+            if (tupleOf[node] != null) {
+                // Edited: the old link has to go, which only a rebuild can do
+                leave(node, "t:" + tupleOf[node]);
+                markStale();
+            }
+            tupleOf[node] = tuple;
+            amountOf[node] = newAmount;
+            if (tuple != null) {
+                join(node, "t:" + tuple);
+            }
+        }
+        addFingerprints(node, hashes);
+    }
+
+    private synchronized void addFingerprints(Long claimId, Collection<String> hashes) {
+        if (claimId == null) return;
+        addFingerprints(nodeFor(claimId), hashes);
+    }
+
+    private void addFingerprints(int node, Collection<String> hashes) {
+        if (hashes == null) return;
+        for (String sha : hashes) {
+            join(node, "d:" + sha);
+        }
+    }
+
+    private void join(int node, String key) {
+        KeyGroup group = groups.computeIfAbsent(key, k -> new KeyGroup());
+        if (!group.nodes.add(node)) return;
+        boolean wasGeneric = isGeneric(group);
+        if (employeeOf[node] != 0) {
+            group.employees.add(employeeOf[node]);
+        }
+        if (isGeneric(group)) {
+            // Its earlier links now span too many employees to mean anything
+            if (!wasGeneric) markStale();
+            return;
+        }
+        boolean tuple = key.startsWith("t:");
+        for (int other : group.nodes) {
+            if (other == node) continue;
+            if (!tuple) {
+                union(other, node);     // every member is already in one component
+                return;
+            }
+            if (Math.abs(amountOf[other] - amountOf[node]) <= AMOUNT_TOLERANCE) {
+                union(other, node);
+            }
+        }
+    }
+
+    private void leave(int node, String key) {
+        KeyGroup group = groups.get(key);
+        if (group == null || !group.nodes.remove(node)) return;
+        if (group.nodes.isEmpty()) {
+            groups.remove(key);
+            return;
+        }
+        group.employees.clear();
+        for (int other : group.nodes) {
+            if (employeeOf[other] != 0) group.employees.add(employeeOf[other]);
+        }
+    }
+
+    private boolean isGeneric(KeyGroup group) {
+        return group.employees.size() > maxEmployeesPerKey;
+    }
+
+    private void markStale() {
+        if (rebuildQueued) return;
+        rebuildQueued = true;
+        builder.submit(this::rebuildComponents);
+    }
+
+    // Redo every union from the key groups; runs after the current batch of changes
+    private synchronized void rebuildComponents() {
+        rebuildQueued = false;
+        employeesByRoot.clear();
+        for (int node = 0; node < nodeCount; node++) {
+            parent[node] = node;
+            size[node] = 1;
+            minClaimId[node] = claimIdOf[node];
+            if (employeeOf[node] != 0) {
+                employeesByRoot.computeIfAbsent(node, root -> new HashSet<>()).add(employeeOf[node]);
+            }
+        }
+        for (Map.Entry<String, KeyGroup> entry : groups.entrySet()) {
+            KeyGroup group = entry.getValue();
+            if (isGeneric(group) || group.nodes.size() < 2) continue;
+            if (entry.getKey().startsWith("d:")) {
+                int first = group.nodes.iterator().next();
+                for (int other : group.nodes) union(first, other);
+            } else {
+                // Sorted by amount, neighbours within the tolerance give the same components as every pair
+                List<Integer> byAmount = new ArrayList<>(group.nodes);
+                byAmount.sort(Comparator.comparingDouble(n -> amountOf[n]));
+                for (int i = 1; i < byAmount.size(); i++) {
+                    if (amountOf[byAmount.get(i)] - amountOf[byAmount.get(i - 1)] <= AMOUNT_TOLERANCE) {
+                        union(byAmount.get(i - 1), byAmount.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    // ------------------ Lookups ------------------
+
+    /**
+     * Cluster of a claim, or null if the claim is not in the graph yet or its cluster
+     * only holds claims of a single employee.
+     */
+    public synchronized Cluster clusterOf(Long claimId) {
+        Integer node = claimId != null ? nodeByClaim.get(claimId) : null;
+        if (node == null) return null;
+        int root = find(node);
+        Set<Long> employees = employeesByRoot.get(root);
+        if (employees == null || employees.size() < 2) return null;
+        return new Cluster(minClaimId[root], size[root], employees.size());
+    }
+
+    public synchronized int nodeCount() {
+        return nodeCount;
+    }
+
+    public record Cluster(long clusterId, int size, int employees) {}
+
+    // ------------------ Union-find ------------------
+
+    private int nodeFor(Long claimId) {
+        Integer existing = nodeByClaim.get(claimId);
+        if (existing != null) return existing;
+
+        if (nodeCount == parent.length) {
+            int capacity = parent.length * 2;
+            parent = Arrays.copyOf(parent, capacity);
+            size = Arrays.copyOf(size, capacity);
+            minClaimId = Arrays.copyOf(minClaimId, capacity);
+            claimIdOf = Arrays.copyOf(claimIdOf, capacity);
+            employeeOf = Arrays.copyOf(employeeOf, capacity);
+            amountOf = Arrays.copyOf(amountOf, capacity);
+            tupleOf = Arrays.copyOf(tupleOf, capacity);
+        }
+        int node = nodeCount++;
+        parent[node] = node;
+        size[node] = 1;
+        minClaimId[node] = claimId;
+        claimIdOf[node] = claimId;
+        amountOf[node] = Double.NaN;
+        nodeByClaim.put(claimId, node);
+        return node;
+    }
+
+    private int find(int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return;
+
+        if (size[rootA] < size[rootB]) {
+            int tmp = rootA;
+            rootA = rootB;
+            rootB = tmp;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        minClaimId[rootA] = Math.min(minClaimId[rootA], minClaimId[rootB]);
+
+        // Fold the smaller employee set into the larger one
+        Set<Long> employeesA = employeesByRoot.remove(rootA);
+        Set<Long> employeesB = employeesByRoot.remove(rootB);
+        if (employeesA == null || (employeesB != null && employeesB.size() > employeesA.size())) {
+            Set<Long> tmp = employeesA;
+            employeesA = employeesB;
+            employeesB = tmp;
+        }
+        if (employeesA != null) {
+            if (employeesB != null) employeesA.addAll(employeesB);
+            employeesByRoot.put(rootA, employeesA);
+        }
+    }
+
+    // ------------------ Keys ------------------
+
+    // Normalized "title|day"; amounts are compared pairwise within the group
+    static String tupleKey(String title, LocalDateTime claimDate) {
+        if (title == null || claimDate == null) return null;
+        String normalizedTitle = title.toLowerCase().replaceAll("[^a-z0-9]+", " ").trim();
+        if (normalizedTitle.isEmpty()) return null;
+        LocalDate day = claimDate.toLocalDate();
+        return normalizedTitle + "|" + day;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+}
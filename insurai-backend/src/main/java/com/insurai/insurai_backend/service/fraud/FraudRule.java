@@ -0,0 +1,18 @@
+package com.insurai.insurai_backend.service.fraud;
+
+/**
+ * One fraud check in the {@code FraudService} rule chain.
+ *
+ * Rules are Spring components; the chain runs them in ascending {@link #cost()} so
+ * the cheap constant-time checks go first and first-hit mode can stop early.
+ */
+public interface FraudRule {
+
+    /** Text appended to the claim's fraud reason when the rule matches. */
+    String reason();
+
+    /** Relative evaluation cost; lower runs earlier. */
+    int cost();
+
+    boolean matches(FraudContext context);
+}
@@ -0,0 +1,62 @@
+package com.insurai.insurai_backend.service.fraud;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit counter and latency histogram for one fraud rule.
+ *
+ * Latencies go into power-of-two nanosecond buckets, so recording is a single
+ * atomic increment and percentiles are reported as bucket upper bounds.
+ */
+public class FraudRuleStats {
+
+    private static final int BUCKETS = 40; // up to ~2^40 ns (~18 min)
+
+    private final String rule;
+    private final int cost;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    public FraudRuleStats(String rule, int cost) {
+        this.rule = rule;
+        this.cost = cost;
+    }
+
+    public void record(long nanos, boolean hit) {
+        evaluations.increment();
+        totalNanos.add(nanos);
+        if (hit) hits.increment();
+        int bucket = nanos <= 1 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos - 1));
+        histogram.incrementAndGet(bucket);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        long evaluated = evaluations.sum();
+        return new Snapshot(rule, cost, evaluated, hits.sum(),
+                evaluated > 0 ? totalNanos.sum() / evaluated : 0,
+                percentile(counts, total, 0.50), percentile(counts, total, 0.95), percentile(counts, total, 0.99));
+    }
+
+    private static long percentile(long[] counts, long total, double p) {
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) return 1L << i;
+        }
+        return 1L << (counts.length - 1);
+    }
+
+    public record Snapshot(String rule, int cost, long evaluations, long hits, long meanNanos,
+                           long p50Nanos, long p95Nanos, long p99Nanos) {}
+}
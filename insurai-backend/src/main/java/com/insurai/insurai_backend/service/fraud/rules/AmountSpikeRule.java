@@ -0,0 +1,29 @@
+package com.insurai.insurai_backend.service.fraud.rules;
+
+import org.springframework.stereotype.Component;
+
+import com.insurai.insurai_backend.service.fraud.FraudContext;
+import com.insurai.insurai_backend.service.fraud.FraudRule;
+
+/**
+ * Unusual pattern / sudden spike: amount above 3x the employee's average claim.
+ */
+@Component
+public class AmountSpikeRule implements FraudRule {
+
+    @Override
+    public String reason() {
+        return "Unusual amount spike";
+    }
+
+    @Override
+    public int cost() {
+        return 2;
+    }
+
+    @Override
+    public boolean matches(FraudContext context) {
+        double avgAmount = context.getProfile().averageAmount();
+        return avgAmount > 0 && context.getClaim().getAmount() > avgAmount * 3;
+    }
+}
@@ -0,0 +1,35 @@
+package com.insurai.insurai_backend.service.fraud.rules;
+
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Component;
+
+import com.insurai.insurai_backend.service.fraud.FraudContext;
+import com.insurai.insurai_backend.service.fraud.FraudRule;
+
+/**
+ * Invalid claim date: before policy start or after policy end/renewal.
+ */
+@Component
+public class ClaimDateWindowRule implements FraudRule {
+
+    @Override
+    public String reason() {
+        return "Invalid claim date";
+    }
+
+    @Override
+    public int cost() {
+        return 1;
+    }
+
+    @Override
+    public boolean matches(FraudContext context) {
+        LocalDate claimDay = context.getClaimDay();
+        LocalDate policyStart = context.getClaim().getPolicy().getStartDate();
+        LocalDate policyEnd = context.getClaim().getPolicy().getRenewalDate(); // Replace with getEndDate() if available
+
+        return (policyStart != null && claimDay.isBefore(policyStart))
+                || (policyEnd != null && claimDay.isAfter(policyEnd));
+    }
+}
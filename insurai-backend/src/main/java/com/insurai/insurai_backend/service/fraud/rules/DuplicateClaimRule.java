@@ -0,0 +1,34 @@
+package com.insurai.insurai_backend.service.fraud.rules;
+
+import org.springframework.stereotype.Component;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.service.fraud.FraudContext;
+import com.insurai.insurai_backend.service.fraud.FraudRule;
+
+/**
+ * Duplicate claim: same policy, same amount, same date.
+ * On submit this is the indexed key reservation; otherwise the profile's key set.
+ */
+@Component
+public class DuplicateClaimRule implements FraudRule {
+
+    @Override
+    public String reason() {
+        return "Duplicate claim";
+    }
+
+    @Override
+    public int cost() {
+        return 2;
+    }
+
+    @Override
+    public boolean matches(FraudContext context) {
+        if (context.getKnownDuplicate() != null) {
+            return context.getKnownDuplicate();
+        }
+        Claim claim = context.getClaim();
+        return context.getProfile().hasDuplicate(claim.getPolicy().getId(), claim.getAmount(), context.getClaimDay());
+    }
+}
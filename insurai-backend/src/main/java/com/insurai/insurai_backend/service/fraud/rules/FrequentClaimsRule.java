@@ -0,0 +1,28 @@
+package com.insurai.insurai_backend.service.fraud.rules;
+
+import org.springframework.stereotype.Component;
+
+import com.insurai.insurai_backend.service.fraud.FraudContext;
+import com.insurai.insurai_backend.service.fraud.FraudRule;
+
+/**
+ * Frequent claims: 3 or more claims submitted in the last 7 days.
+ */
+@Component
+public class FrequentClaimsRule implements FraudRule {
+
+    @Override
+    public String reason() {
+        return "Frequent claims";
+    }
+
+    @Override
+    public int cost() {
+        return 3;
+    }
+
+    @Override
+    public boolean matches(FraudContext context) {
+        return context.getProfile().countSubmittedAfter(context.getAsOf().minusDays(7)) >= 3;
+    }
+}
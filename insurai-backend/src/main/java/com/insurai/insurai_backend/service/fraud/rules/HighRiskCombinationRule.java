@@ -0,0 +1,33 @@
+package com.insurai.insurai_backend.service.fraud.rules;
+
+import org.springframework.stereotype.Component;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.service.fraud.FraudContext;
+import com.insurai.insurai_backend.service.fraud.FraudRule;
+
+/**
+ * High-risk combinations (example: Life policy + minor illness).
+ */
+@Component
+public class HighRiskCombinationRule implements FraudRule {
+
+    @Override
+    public String reason() {
+        return "High-risk combination";
+    }
+
+    @Override
+    public int cost() {
+        return 1;
+    }
+
+    @Override
+    public boolean matches(FraudContext context) {
+        Claim claim = context.getClaim();
+        return claim.getPolicy().getPolicyType() != null
+                && claim.getPolicy().getPolicyType().equalsIgnoreCase("Life")
+                && claim.getTitle() != null
+                && claim.getTitle().equalsIgnoreCase("Minor Illness");
+    }
+}
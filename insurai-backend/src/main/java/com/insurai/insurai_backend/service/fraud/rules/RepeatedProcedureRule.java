@@ -0,0 +1,28 @@
+package com.insurai.insurai_backend.service.fraud.rules;
+
+import org.springframework.stereotype.Component;
+
+import com.insurai.insurai_backend.service.fraud.FraudContext;
+import com.insurai.insurai_backend.service.fraud.FraudRule;
+
+/**
+ * Same procedure repeatedly: 2 or more claims with the same title in the last 30 days.
+ */
+@Component
+public class RepeatedProcedureRule implements FraudRule {
+
+    @Override
+    public String reason() {
+        return "Repeated procedure";
+    }
+
+    @Override
+    public int cost() {
+        return 3;
+    }
+
+    @Override
+    public boolean matches(FraudContext context) {
+        return context.getProfile().countTitleAfter(context.getClaim().getTitle(), context.getAsOf().minusDays(30)) >= 2;
+    }
+}
@@ -0,0 +1,41 @@
+package com.insurai.insurai_backend.service.fraud.rules;
+
+import org.springframework.stereotype.Component;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.service.fraud.DocumentFingerprintIndex;
+import com.insurai.insurai_backend.service.fraud.FraudContext;
+import com.insurai.insurai_backend.service.fraud.FraudRule;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reused documents: same file content uploaded before, by anyone.
+ * Most expensive rule since a Bloom-filter hit costs a database probe.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReusedDocumentRule implements FraudRule {
+
+    private final DocumentFingerprintIndex documentFingerprintIndex;
+
+    @Override
+    public String reason() {
+        return "Reused document";
+    }
+
+    @Override
+    public int cost() {
+        return 10;
+    }
+
+    @Override
+    public boolean matches(FraudContext context) {
+        if (context.getDocumentReusedOverride() != null) {
+            return context.getDocumentReusedOverride().test(context.getClaim());
+        }
+        Claim claim = context.getClaim();
+        return claim.getDocumentFingerprints() != null
+                && documentFingerprintIndex.anyKnown(claim.getDocumentFingerprints().values());
+    }
+}
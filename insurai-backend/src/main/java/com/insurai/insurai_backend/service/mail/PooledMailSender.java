@@ -0,0 +1,308 @@
+package com.insurai.insurai_backend.service.mail;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * {@link JavaMailSenderImpl} that keeps connected, authenticated SMTP transports open
+ * and sends many messages over each one, instead of paying for TCP, (START)TLS and
+ * AUTH on every {@code send}.
+ *
+ * At most {@code maxConnections} transports exist; callers wait up to {@code maxWaitMs}
+ * for one. Idle transports are reused most-recently-used first, checked with a NOOP
+ * when they sat idle for a while, and closed after {@code idleTimeoutMs} or after
+ * {@code maxMessagesPerConnection} messages (servers cap messages per session). A
+ * message that fails on a reused transport because the server dropped it is retried
+ * once on a fresh one.
+ */
+public class PooledMailSender extends JavaMailSenderImpl {
+
+    // Idle this long before a borrowed transport is checked with NOOP first
+    private static final long VALIDATE_AFTER_IDLE_MS = 1000;
+
+    private final int maxConnections;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMs;
+    private final long maxWaitMs;
+
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private volatile boolean closed;
+
+    private final AtomicInteger openCount = new AtomicInteger();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder reuses = new LongAdder();
+    private final LongAdder waitTimeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+
+    public PooledMailSender(int maxConnections, int maxMessagesPerConnection, long idleTimeoutMs, long maxWaitMs) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be at least 1");
+        }
+        this.maxConnections = maxConnections;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxWaitMs = maxWaitMs;
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    public record PoolStats(int maxConnections,
+                            int open,
+                            int idle,
+                            int inUse,
+                            long created,
+                            long destroyed,
+                            long borrows,
+                            long reuses,
+                            long waitTimeouts,
+                            double avgWaitMillis,
+                            long messagesSent,
+                            long messagesFailed,
+                            long reconnects,
+                            double messagesPerConnection) {}
+
+    private static final class PooledTransport {
+        final Transport transport;
+        long lastUsedAt = System.currentTimeMillis();
+        int messages;
+        boolean broken;         // closed after an error; never goes back to the pool
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    // ------------------ Sending ------------------
+
+    /**
+     * Same contract as {@link JavaMailSenderImpl#doSend}, over one pooled transport per call.
+     */
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        PooledTransport pooled = borrow();
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage mimeMessage = mimeMessages[i];
+                try {
+                    if (pooled.broken) {
+                        pooled = open();
+                    }
+                    prepare(mimeMessage);
+                    Address[] addresses = mimeMessage.getAllRecipients();
+                    Address[] recipients = addresses != null ? addresses : new Address[0];
+
+                    boolean reused = pooled.messages > 0;
+                    try {
+                        sendOn(pooled, mimeMessage, recipients);
+                    } catch (MessagingException e) {
+                        if (!pooled.broken || !reused) throw e;
+                        // Most likely the server closed a session we kept open; once more on a fresh one
+                        reconnects.increment();
+                        pooled = open();
+                        sendOn(pooled, mimeMessage, recipients);
+                    }
+                    sent.increment();
+                } catch (MailException e) {
+                    // No working connection: everything left fails the same way
+                    for (int j = i; j < mimeMessages.length; j++) {
+                        failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], e);
+                    }
+                    failed.add(mimeMessages.length - i);
+                    throw new MailSendException("Mail server connection failed", e, failedMessages);
+                } catch (Exception e) {
+                    failedMessages.put(originalMessages != null ? originalMessages[i] : mimeMessage, e);
+                    failed.increment();
+                }
+            }
+        } finally {
+            release(pooled);
+        }
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    private static void prepare(MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // Keep an explicitly set Message-ID (saveChanges generates a new one)
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private void sendOn(PooledTransport pooled, MimeMessage mimeMessage, Address[] recipients)
+            throws MessagingException {
+        try {
+            pooled.transport.sendMessage(mimeMessage, recipients);
+            pooled.messages++;
+        } catch (SendFailedException e) {
+            // Rejected recipients; the session itself is fine
+            pooled.messages++;
+            throw e;
+        } catch (MessagingException e) {
+            destroy(pooled);
+            throw e;
+        }
+    }
+
+    // ------------------ Pool ------------------
+
+    private PooledTransport borrow() {
+        if (closed) {
+            throw new MailSendException("Mail sender is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                waitTimeouts.increment();
+                throw new MailSendException("No SMTP connection free within " + maxWaitMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted waiting for an SMTP connection", e);
+        }
+        waitNanos.add(System.nanoTime() - start);
+        borrows.increment();
+
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    reuses.increment();
+                    return pooled;
+                }
+                destroy(pooled);
+            }
+            return open();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledTransport pooled) {
+        long idleFor = System.currentTimeMillis() - pooled.lastUsedAt;
+        if (idleFor > idleTimeoutMs || pooled.messages >= maxMessagesPerConnection) {
+            return false;
+        }
+        // isConnected() sends a NOOP for SMTP, so only ask when the server may have hung up
+        return idleFor < VALIDATE_AFTER_IDLE_MS || pooled.transport.isConnected();
+    }
+
+    // A new connected (and authenticated) transport; the caller already holds its permit
+    private PooledTransport open() {
+        Transport transport;
+        try {
+            transport = connectTransport();
+        } catch (AuthenticationFailedException e) {
+            throw new MailAuthenticationException(e);
+        } catch (MessagingException e) {
+            throw new MailSendException("Mail server connection failed", e);
+        }
+        openCount.incrementAndGet();
+        created.increment();
+        return new PooledTransport(transport);
+    }
+
+    private void release(PooledTransport pooled) {
+        try {
+            if (pooled.broken) return;
+            if (closed || pooled.messages >= maxMessagesPerConnection) {
+                destroy(pooled);
+                return;
+            }
+            pooled.lastUsedAt = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledTransport pooled) {
+        if (pooled.broken) return;
+        pooled.broken = true;
+        openCount.decrementAndGet();
+        destroyed.increment();
+        try {
+            pooled.transport.close();
+        } catch (Exception ignored) {
+            // Already gone
+        }
+    }
+
+    /**
+     * Close transports that have been idle longer than the idle timeout.
+     */
+    @Scheduled(fixedDelayString = "${mail.pool.evict-interval-ms:30000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        // Least recently used ones sit at the tail
+        PooledTransport pooled;
+        while ((pooled = idle.pollLast()) != null) {
+            if (pooled.lastUsedAt >= cutoff) {
+                idle.offerLast(pooled);
+                break;
+            }
+            destroy(pooled);
+        }
+    }
+
+    public void close() {
+        closed = true;
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    public PoolStats stats() {
+        long borrowCount = borrows.sum();
+        long createdCount = created.sum();
+        int openNow = openCount.get();
+        int idleCount = idle.size();
+        return new PoolStats(maxConnections,
+                openNow,
+                idleCount,
+                maxConnections - permits.availablePermits(),
+                createdCount,
+                destroyed.sum(),
+                borrowCount,
+                reuses.sum(),
+                waitTimeouts.sum(),
+                borrowCount == 0 ? 0 : waitNanos.sum() / 1_000_000.0 / borrowCount,
+                sent.sum(),
+                failed.sum(),
+                reconnects.sum(),
+                createdCount == 0 ? 0 : (double) sent.sum() / createdCount);
+    }
+}
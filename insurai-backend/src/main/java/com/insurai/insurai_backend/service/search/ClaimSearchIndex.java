@@ -0,0 +1,598 @@
+package com.insurai.insurai_backend.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory inverted index over claim text (title, description, remarks, fraud reason).
+ *
+ * Each claim is a document with a dense ordinal; every term keeps a postings list of
+ * (ordinal, term frequency) in ordinal order. Status and assigned HR sit in arrays by
+ * ordinal, so filters cost one array read per candidate. Queries are AND over their
+ * terms, a term ending in {@code *} matches by prefix, and hits are ranked by BM25.
+ *
+ * A changed claim is appended as a new document and its old ordinal is marked deleted.
+ * The index is rebuilt from the database at startup, every
+ * {@code claims.search.reconcile-interval-ms} (to pick up changes it was not told
+ * about), and once half of it is stale, by building id-range segments in parallel and
+ * concatenating them. Changes that arrive during a rebuild are applied to the old
+ * index and replayed on the new one.
+ */
+@Service
+public class ClaimSearchIndex {
+
+    private static final int BATCH_SIZE = 5000;
+
+    // A prefix term matches at most this many index terms (in term order)
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    // BM25 parameters
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Rebuild once this many documents are stale and they are at least half the index
+    private static final int COMPACT_MIN_DELETED = 10_000;
+
+    private final ClaimRepository claimRepository;
+    private final int parallelism;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment index = new Segment();          // guarded by lock
+    private List<Doc> changedDuringBuild;            // non-null while a rebuild runs (guarded by lock)
+
+    private volatile boolean ready = false;
+    private final AtomicBoolean building = new AtomicBoolean(false);
+
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "claim-search-build");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ClaimSearchIndex(ClaimRepository claimRepository,
+                            @Value("${claims.search.build-parallelism:0}") int parallelism) {
+        this.claimRepository = claimRepository;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public record Hit(long claimId, float score) {}
+
+    /**
+     * @param hits          best matches, highest score first
+     * @param totalMatches  matching claims before the limit was applied
+     * @param indexReady    false while the startup build is still running (results may be incomplete)
+     */
+    public record SearchResult(List<Hit> hits, int totalMatches, boolean indexReady) {}
+
+    public record IndexStats(int documents, int staleDocuments, int terms, boolean ready, boolean rebuilding) {}
+
+    // ------------------ Building ------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${claims.search.reconcile-interval-ms:3600000}",
+               fixedDelayString = "${claims.search.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild from the database in the background (no-op if a rebuild is already running).
+     */
+    public void rebuild() {
+        if (!building.compareAndSet(false, true)) return;
+        builder.submit(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                Segment built = build();
+                lock.writeLock().lock();
+                try {
+                    for (Doc doc : changedDuringBuild) {
+                        built.add(doc);
+                    }
+                    index = built;
+                    changedDuringBuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                ready = true;
+                System.out.println("✅ Claim search index ready (" + built.liveCount() + " claims, "
+                        + built.terms.size() + " terms, " + (System.currentTimeMillis() - start) + " ms)");
+            } catch (Exception e) {
+                lock.writeLock().lock();
+                try {
+                    changedDuringBuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                System.err.println("❌ Claim search index build failed: " + e.getMessage());
+            } finally {
+                building.set(false);
+            }
+        });
+    }
+
+    // One segment per id range, built concurrently, then concatenated in id order
+    private Segment build() throws Exception {
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Long maxId = claimRepository.findMaxId();
+        if (maxId == null) return new Segment();
+
+        int segments = (int) Math.max(1, Math.min(parallelism, maxId / BATCH_SIZE + 1));
+        long span = maxId / segments + 1;
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(segments, r -> {
+            Thread t = new Thread(r, "claim-search-segment-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Segment>> parts = new ArrayList<>(segments);
+            for (int i = 0; i < segments; i++) {
+                long afterId = i * span;
+                long lastId = Math.min(maxId, (i + 1) * span);
+                parts.add(pool.submit(() -> buildSegment(afterId, lastId)));
+            }
+            Segment merged = parts.get(0).get();
+            for (int i = 1; i < parts.size(); i++) {
+                merged.append(parts.get(i).get());
+            }
+            return merged;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Segment buildSegment(long afterId, long lastId) {
+        Segment segment = new Segment();
+        List<Object[]> rows;
+        do {
+            rows = claimRepository.findSearchBatch(afterId, lastId, PageRequest.of(0, BATCH_SIZE));
+            for (Object[] row : rows) {
+                Doc doc = Doc.of(row);
+                segment.add(doc);
+                afterId = doc.claimId();
+            }
+        } while (rows.size() == BATCH_SIZE);
+        return segment;
+    }
+
+    // ------------------ Updates ------------------
+
+    /**
+     * Index a created or changed claim (replaces its previous version).
+     */
+    public void index(Claim claim) {
+        if (claim == null || claim.getId() == null) return;
+        indexAll(List.of(claim));
+    }
+
+    public void indexAll(Collection<Claim> claims) {
+        List<Doc> docs = new ArrayList<>(claims.size());
+        for (Claim claim : claims) {
+            if (claim == null || claim.getId() == null) continue;
+            docs.add(Doc.of(claim.getId(), claim.getTitle(), claim.getDescription(), claim.getRemarks(),
+                    claim.getFraudReason(), claim.getStatus(),
+                    claim.getAssignedHr() != null ? claim.getAssignedHr().getId() : null));
+        }
+        apply(docs);
+    }
+
+    /**
+     * Index claims as currently stored (after writes that did not go through a {@link Claim}).
+     */
+    public void reindex(Collection<Long> claimIds) {
+        if (claimIds == null || claimIds.isEmpty()) return;
+        List<Doc> docs = new ArrayList<>(claimIds.size());
+        for (Object[] row : claimRepository.findSearchRowsByIds(claimIds)) {
+            docs.add(Doc.of(row));
+        }
+        apply(docs);
+    }
+
+    private void apply(List<Doc> docs) {
+        if (docs.isEmpty()) return;
+
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            for (Doc doc : docs) {
+                index.add(doc);
+            }
+            if (changedDuringBuild != null) {
+                changedDuringBuild.addAll(docs);
+            }
+            compact = index.deletedCount >= COMPACT_MIN_DELETED && index.deletedCount * 2 >= index.docCount;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            rebuild();
+        }
+    }
+
+    // ------------------ Search ------------------
+
+    /**
+     * Ranked search. All query terms must match; {@code term*} matches by prefix.
+     *
+     * @param status       only claims in this status (null = any)
+     * @param assignedHrId only claims assigned to this HR (null = any)
+     */
+    public SearchResult search(String query, String status, Long assignedHrId, int limit) {
+        List<QueryTerm> terms = parse(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return new SearchResult(List.of(), 0, ready);
+        }
+
+        lock.readLock().lock();
+        try {
+            Segment s = index;
+            int live = s.liveCount();
+            if (live == 0) return new SearchResult(List.of(), 0, ready);
+            float avgLength = Math.max(1f, (float) s.totalLength / live);
+
+            List<Matches> clauses = new ArrayList<>(terms.size());
+            for (QueryTerm term : terms) {
+                Matches matches = s.match(term, live, avgLength);
+                if (matches.size == 0) return new SearchResult(List.of(), 0, ready);
+                clauses.add(matches);
+            }
+            clauses.sort(Comparator.comparingInt(m -> m.size));
+
+            Matches result = clauses.get(0);
+            for (int i = 1; i < clauses.size() && result.size > 0; i++) {
+                result = result.intersect(clauses.get(i));
+            }
+
+            // Filters and top-k
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::score));
+            int total = 0;
+            for (int i = 0; i < result.size; i++) {
+                int ord = result.docs[i];
+                if (s.deleted.get(ord)) continue;
+                if (status != null && !status.equalsIgnoreCase(s.statuses[ord])) continue;
+                if (assignedHrId != null && s.hrIds[ord] != assignedHrId) continue;
+                total++;
+                if (top.size() < limit || result.scores[i] > top.peek().score()) {
+                    top.add(new Hit(s.claimIds[ord], result.scores[i]));
+                    if (top.size() > limit) top.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+            return new SearchResult(hits, total, ready);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public IndexStats stats() {
+        lock.readLock().lock();
+        try {
+            return new IndexStats(index.liveCount(), index.deletedCount, index.terms.size(), ready, building.get());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ------------------ Text ------------------
+
+    private record QueryTerm(String text, boolean prefix) {}
+
+    private static List<QueryTerm> parse(String query) {
+        List<QueryTerm> terms = new ArrayList<>();
+        if (query == null) return terms;
+        for (String word : query.trim().split("\\s+")) {
+            boolean prefix = word.endsWith("*");
+            List<String> tokens = tokenize(word);
+            for (int i = 0; i < tokens.size(); i++) {
+                terms.add(new QueryTerm(tokens.get(i), prefix && i == tokens.size() - 1));
+            }
+        }
+        return terms;
+    }
+
+    // Lowercased runs of letters and digits
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * A claim version ready to index: term frequencies plus filter fields.
+     */
+    private record Doc(long claimId, String status, long hrId, Map<String, Integer> termFreqs, int length) {
+
+        static Doc of(long claimId, String title, String description, String remarks, String fraudReason,
+                      String status, Long hrId) {
+            Map<String, Integer> freqs = new HashMap<>();
+            int length = 0;
+            for (String field : new String[] { title, description, remarks, fraudReason }) {
+                for (String token : tokenize(field)) {
+                    freqs.merge(token, 1, Integer::sum);
+                    length++;
+                }
+            }
+            return new Doc(claimId, status != null ? status.intern() : null, hrId != null ? hrId : 0L, freqs, length);
+        }
+
+        // [id, title, description, remarks, fraudReason, status, assignedHrId]
+        static Doc of(Object[] row) {
+            return of((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                    (String) row[5], (Long) row[6]);
+        }
+    }
+
+    // ------------------ Index structures ------------------
+
+    /**
+     * Postings of one term: ordinals ascending, with the term's frequency in each.
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        void appendShifted(Postings other, int base) {
+            int needed = size + other.size;
+            if (needed > docs.length) {
+                int capacity = Math.max(needed, docs.length * 2);
+                docs = Arrays.copyOf(docs, capacity);
+                freqs = Arrays.copyOf(freqs, capacity);
+            }
+            for (int i = 0; i < other.size; i++) {
+                docs[size + i] = other.docs[i] + base;
+            }
+            System.arraycopy(other.freqs, 0, freqs, size, other.size);
+            size = needed;
+        }
+    }
+
+    /**
+     * Ordinals matching a query clause with their scores, ordinals ascending.
+     */
+    private static final class Matches {
+        final int[] docs;
+        final float[] scores;
+        final int size;
+
+        Matches(int[] docs, float[] scores, int size) {
+            this.docs = docs;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        // Walk the smaller list, gallop through the larger one
+        Matches intersect(Matches other) {
+            int[] outDocs = new int[Math.min(size, other.size)];
+            float[] outScores = new float[outDocs.length];
+            int n = 0;
+            int j = 0;
+            for (int i = 0; i < size && j < other.size; i++) {
+                int doc = docs[i];
+                j = advance(other.docs, j, other.size, doc);
+                if (j < other.size && other.docs[j] == doc) {
+                    outDocs[n] = doc;
+                    outScores[n] = scores[i] + other.scores[j];
+                    n++;
+                }
+            }
+            return new Matches(outDocs, outScores, n);
+        }
+
+        // First index >= from whose doc is >= target
+        private static int advance(int[] docs, int from, int size, int target) {
+            int step = 1;
+            int hi = from;
+            while (hi < size && docs[hi] < target) {
+                from = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            int idx = Arrays.binarySearch(docs, from, Math.min(hi + 1, size), target);
+            return idx >= 0 ? idx : -idx - 1;
+        }
+    }
+
+    /**
+     * Growable index over dense document ordinals. Mutated by one thread at a time
+     * (the builder thread while a segment is built, otherwise under the write lock).
+     */
+    private static final class Segment {
+        int docCount;
+        int deletedCount;
+        long totalLength;                 // over live documents
+        long[] claimIds = new long[1024];
+        int[] lengths = new int[1024];
+        String[] statuses = new String[1024];
+        long[] hrIds = new long[1024];
+        final BitSet deleted = new BitSet();
+        final Map<Long, Integer> ordByClaim = new HashMap<>();
+        final TreeMap<String, Postings> terms = new TreeMap<>();
+
+        int liveCount() {
+            return docCount - deletedCount;
+        }
+
+        void add(Doc doc) {
+            Integer previous = ordByClaim.get(doc.claimId());
+            if (previous != null) {
+                delete(previous);
+            }
+            ensureCapacity(docCount + 1);
+            int ord = docCount++;
+            claimIds[ord] = doc.claimId();
+            lengths[ord] = doc.length();
+            statuses[ord] = doc.status();
+            hrIds[ord] = doc.hrId();
+            totalLength += doc.length();
+            ordByClaim.put(doc.claimId(), ord);
+            doc.termFreqs().forEach((term, freq) -> terms.computeIfAbsent(term, t -> new Postings()).add(ord, freq));
+        }
+
+        private void delete(int ord) {
+            if (deleted.get(ord)) return;
+            deleted.set(ord);
+            deletedCount++;
+            totalLength -= lengths[ord];
+        }
+
+        // Concatenate a segment whose claims all come after this one's
+        void append(Segment other) {
+            int base = docCount;
+            ensureCapacity(docCount + other.docCount);
+            System.arraycopy(other.claimIds, 0, claimIds, base, other.docCount);
+            System.arraycopy(other.lengths, 0, lengths, base, other.docCount);
+            System.arraycopy(other.statuses, 0, statuses, base, other.docCount);
+            System.arraycopy(other.hrIds, 0, hrIds, base, other.docCount);
+            for (int ord = other.deleted.nextSetBit(0); ord >= 0; ord = other.deleted.nextSetBit(ord + 1)) {
+                deleted.set(base + ord);
+            }
+            other.ordByClaim.forEach((claimId, ord) -> ordByClaim.put(claimId, base + ord));
+            other.terms.forEach((term, postings) ->
+                    terms.computeIfAbsent(term, t -> new Postings()).appendShifted(postings, base));
+            docCount += other.docCount;
+            deletedCount += other.deletedCount;
+            totalLength += other.totalLength;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed <= claimIds.length) return;
+            int capacity = Math.max(needed, claimIds.length * 2);
+            claimIds = Arrays.copyOf(claimIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            hrIds = Arrays.copyOf(hrIds, capacity);
+        }
+
+        /**
+         * Scored ordinals for one query term. A prefix term takes, per document, the best
+         * score among the index terms it expands to.
+         */
+        Matches match(QueryTerm term, int liveDocs, float avgLength) {
+            if (!term.prefix()) {
+                Postings postings = terms.get(term.text());
+                if (postings == null) return new Matches(new int[0], new float[0], 0);
+                float[] scores = new float[postings.size];
+                score(postings, liveDocs, avgLength, scores, 0);
+                return new Matches(Arrays.copyOf(postings.docs, postings.size), scores, postings.size);
+            }
+
+            List<Postings> expansions = new ArrayList<>();
+            int total = 0;
+            for (Postings postings : terms.subMap(term.text(), true, term.text() + Character.MAX_VALUE, false).values()) {
+                expansions.add(postings);
+                total += postings.size;
+                if (expansions.size() == MAX_PREFIX_EXPANSIONS) break;
+            }
+            if (expansions.size() == 1) {
+                Postings only = expansions.get(0);
+                float[] scores = new float[only.size];
+                score(only, liveDocs, avgLength, scores, 0);
+                return new Matches(Arrays.copyOf(only.docs, only.size), scores, only.size);
+            }
+
+            // (ordinal << 32 | score bits) sorts by ordinal; keep the best score per ordinal
+            long[] packed = new long[total];
+            float[] scores = new float[total];
+            int n = 0;
+            for (Postings postings : expansions) {
+                score(postings, liveDocs, avgLength, scores, n);
+                for (int i = 0; i < postings.size; i++) {
+                    packed[n + i] = ((long) postings.docs[i] << 32) | (Float.floatToIntBits(scores[n + i]) & 0xFFFFFFFFL);
+                }
+                n += postings.size;
+            }
+            Arrays.sort(packed);
+
+            int[] docs = new int[total];
+            int size = 0;
+            for (long p : packed) {
+                int doc = (int) (p >>> 32);
+                float score = Float.intBitsToFloat((int) p);
+                if (size > 0 && docs[size - 1] == doc) {
+                    scores[size - 1] = Math.max(scores[size - 1], score);
+                } else {
+                    docs[size] = doc;
+                    scores[size] = score;
+                    size++;
+                }
+            }
+            return new Matches(docs, scores, size);
+        }
+
+        // BM25; document frequency counts stale versions too, which only nudges idf
+        private void score(Postings postings, int liveDocs, float avgLength, float[] out, int offset) {
+            float idf = (float) Math.log(1 + (liveDocs - postings.size + 0.5) / (postings.size + 0.5));
+            if (idf < 0.01f) idf = 0.01f;
+            for (int i = 0; i < postings.size; i++) {
+                int freq = postings.freqs[i];
+                float norm = K1 * (1 - B + B * lengths[postings.docs[i]] / avgLength);
+                out[offset + i] = idf * freq * (K1 + 1) / (freq + norm);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+}
@@ -0,0 +1,181 @@
+package com.insurai.insurai_backend.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.model.Employee;
+import com.insurai.insurai_backend.model.Policy;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+import com.insurai.insurai_backend.repository.DocumentFingerprintRepository;
+import com.insurai.insurai_backend.service.FraudService;
+import com.insurai.insurai_backend.service.fraud.DocumentFingerprintIndex;
+import com.insurai.insurai_backend.service.fraud.DuplicateClaimIndex;
+import com.insurai.insurai_backend.service.fraud.EmployeeFraudProfile;
+import com.insurai.insurai_backend.service.fraud.FraudRule;
+import com.insurai.insurai_backend.service.fraud.rules.AmountSpikeRule;
+import com.insurai.insurai_backend.service.fraud.rules.ClaimDateWindowRule;
+import com.insurai.insurai_backend.service.fraud.rules.DuplicateClaimRule;
+import com.insurai.insurai_backend.service.fraud.rules.FrequentClaimsRule;
+import com.insurai.insurai_backend.service.fraud.rules.HighRiskCombinationRule;
+import com.insurai.insurai_backend.service.fraud.rules.RepeatedProcedureRule;
+import com.insurai.insurai_backend.service.fraud.rules.ReusedDocumentRule;
+
+/**
+ * JMH benchmark for {@link FraudService#runFraudDetection} over synthetic employee histories.
+ *
+ * The full rule chain runs with the real fingerprint index and duplicate index; only their
+ * repositories are stubbed (no database), so the numbers cover the in-process cost of a submit.
+ *
+ * <ul>
+ *   <li>{@code scoreWithProfile} - online submit path against a maintained profile</li>
+ *   <li>{@code scoreWithHistoryList} - list overload, which rebuilds the aggregate on every call</li>
+ * </ul>
+ *
+ * Run the whole matrix (ns/op plus the gc profiler's allocation rate) with {@link #main};
+ * {@code mvn -Pbenchmark test} runs the throughput gate in {@link FraudDetectionThroughputGateTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FraudDetectionBenchmark {
+
+    private static final String[] TITLES = { "Dental", "Consultation", "Surgery", "Pharmacy", "Physiotherapy", "Eye Care" };
+
+    @Param({ "10", "1000", "10000", "100000" })
+    public int historySize;
+
+    @Param({ "0", "3", "10" })
+    public int documentsPerClaim;
+
+    private FraudService fraudService;
+    private List<Claim> history;
+    private EmployeeFraudProfile profile;
+    private Claim claim;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+
+        Employee employee = new Employee();
+        employee.setId(1L);
+
+        Policy policy = new Policy();
+        policy.setId(1L);
+        policy.setPolicyType("Health");
+        policy.setStartDate(LocalDate.now().minusYears(3));
+        policy.setRenewalDate(LocalDate.now().plusYears(1));
+
+        // Stub-only mocks: nothing is recorded, so 100k register() calls stay cheap
+        DocumentFingerprintRepository fingerprintRepository =
+                mock(DocumentFingerprintRepository.class, withSettings().stubOnly());
+        ClaimRepository claimRepository = mock(ClaimRepository.class, withSettings().stubOnly());
+
+        DocumentFingerprintIndex fingerprintIndex = new DocumentFingerprintIndex(fingerprintRepository,
+                Math.max(1000, (long) historySize * Math.max(1, documentsPerClaim)), 0.01);
+        fingerprintIndex.warmUp();
+        DuplicateClaimIndex duplicateClaimIndex = new DuplicateClaimIndex(claimRepository, null, 100_000, 1440);
+
+        List<FraudRule> rules = List.of(
+                new ClaimDateWindowRule(),
+                new HighRiskCombinationRule(),
+                new DuplicateClaimRule(),
+                new AmountSpikeRule(),
+                new FrequentClaimsRule(),
+                new RepeatedProcedureRule(),
+                new ReusedDocumentRule(fingerprintIndex));
+        fraudService = new FraudService(rules, duplicateClaimIndex, false);
+
+        // History spread over the last two years, oldest first
+        LocalDateTime now = LocalDateTime.now();
+        history = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            LocalDateTime submitted = now.minusMinutes((long) (historySize - i) * 2 * 365 * 24 * 60 / historySize + 1);
+            Claim past = newClaim(employee, policy, TITLES[random.nextInt(TITLES.length)],
+                    100 + random.nextInt(5000), submitted, random);
+            ReflectionTestUtils.setField(past, "id", (long) i + 1);
+            fingerprintIndex.register(past);
+            history.add(past);
+        }
+        profile = EmployeeFraudProfile.of(history);
+
+        claim = newClaim(employee, policy, "Dental", 1200.0, now, random);
+    }
+
+    private Claim newClaim(Employee employee, Policy policy, String title, double amount,
+                           LocalDateTime submitted, Random random) {
+        Claim c = new Claim();
+        c.setEmployee(employee);
+        c.setPolicy(policy);
+        c.setTitle(title);
+        c.setAmount(amount);
+        c.setClaimDate(submitted);
+        c.setCreatedAt(submitted);
+        c.setStatus("Pending");
+
+        Map<String, String> fingerprints = new LinkedHashMap<>();
+        for (int d = 0; d < documentsPerClaim; d++) {
+            fingerprints.put("uploads/doc-" + d, randomSha256(random));
+        }
+        c.setDocumentFingerprints(fingerprints);
+        return c;
+    }
+
+    private static String randomSha256(Random random) {
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < 4; i++) {
+            sb.append(String.format("%016x", random.nextLong()));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public boolean scoreWithProfile() {
+        fraudService.runFraudDetection(claim, profile);
+        return claim.isFraud();
+    }
+
+    @Benchmark
+    public boolean scoreWithHistoryList() {
+        fraudService.runFraudDetection(claim, history);
+        return claim.isFraud();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(FraudDetectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,75 @@
+package com.insurai.insurai_backend.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Throughput gate for the online fraud scoring path (run by {@code mvn verify}, or alone
+ * with {@code mvn -Pbenchmark test}).
+ *
+ * Two forks of ten two-second iterations keep the score error well below the floor;
+ * with fewer the error bar was wider than the score and the gate passed or failed at random.
+ *
+ * Fails when the 100k-claim history drops below {@code fraud.benchmark.min-ops-per-sec},
+ * or when it is more than {@code fraud.benchmark.max-slowdown} times slower than a
+ * 10-claim history, i.e. when submit cost starts growing with the employee's history.
+ */
+@Tag("benchmark")
+class FraudDetectionThroughputGateTest {
+
+    private static final String SMALL = "10";
+    private static final String LARGE = "100000";
+
+    @Test
+    void onlineScoringKeepsThroughputFloor() throws Exception {
+        double minOpsPerSec = Double.parseDouble(System.getProperty("fraud.benchmark.min-ops-per-sec", "20000"));
+        double maxSlowdown = Double.parseDouble(System.getProperty("fraud.benchmark.max-slowdown", "10"));
+
+        Options options = new OptionsBuilder()
+                .include(FraudDetectionBenchmark.class.getName() + ".scoreWithProfile")
+                .param("historySize", SMALL, LARGE)
+                .param("documentsPerClaim", "3")
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .warmupIterations(5)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(10)
+                .measurementTime(TimeValue.seconds(2))
+                .forks(2)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        Map<String, Double> opsByHistory = new TreeMap<>();
+        Map<String, Double> errorByHistory = new TreeMap<>();
+        for (RunResult result : results) {
+            String historySize = result.getParams().getParam("historySize");
+            opsByHistory.put(historySize, result.getPrimaryResult().getScore());
+            errorByHistory.put(historySize, result.getPrimaryResult().getScoreError());
+        }
+        double small = opsByHistory.get(SMALL);
+        double large = opsByHistory.get(LARGE);
+
+        assertTrue(large >= minOpsPerSec, String.format(
+                "Fraud scoring with %s claims of history: %.0f ± %.0f ops/s, floor is %.0f ops/s",
+                LARGE, large, errorByHistory.get(LARGE), minOpsPerSec));
+        assertTrue(small / large <= maxSlowdown, String.format(
+                "Fraud scoring is %.1fx slower with %s claims of history than with %s (max %.1fx)",
+                small / large, LARGE, SMALL, maxSlowdown));
+    }
+}
@@ -0,0 +1,134 @@
+package com.insurai.insurai_backend.benchmark;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.insurai.insurai_backend.service.mail.PooledMailSender;
+
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * JMH benchmark for sending notification-sized HTML emails to an in-process GreenMail
+ * server with authentication, over plain SMTP and over SMTPS (TLS handshake per connection).
+ *
+ * <ul>
+ *   <li>{@code pooled = false} - Spring's {@link JavaMailSenderImpl}: connect, (TLS,) AUTH per message</li>
+ *   <li>{@code pooled = true} - {@link PooledMailSender} with one connection per sending thread</li>
+ * </ul>
+ *
+ * Four threads send concurrently, like the email outbox workers. Run the whole matrix
+ * with {@link #main}; {@code mvn -Pbenchmark test} runs {@link MailTransportThroughputGateTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(MailTransportBenchmark.SENDERS)
+@Fork(1)
+public class MailTransportBenchmark {
+
+    static final int SENDERS = 4;
+
+    private static final String USER = "bench@localhost";
+    private static final String PASSWORD = "secret";
+
+    @Param({ "false", "true" })
+    public boolean pooled;
+
+    @Param({ "smtp", "smtps" })
+    public String protocol;
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl sender;
+    private String htmlBody;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean tls = "smtps".equals(protocol);
+        ServerSetup setup = (tls ? ServerSetupTest.SMTPS : ServerSetupTest.SMTP).dynamicPort();
+        greenMail = new GreenMail(setup);
+        greenMail.setUser(USER, USER, PASSWORD);
+        greenMail.start();
+
+        sender = pooled ? new PooledMailSender(SENDERS, 100, 60_000, 10_000) : new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(tls ? greenMail.getSmtps().getPort() : greenMail.getSmtp().getPort());
+        sender.setProtocol(protocol);
+        sender.setUsername(USER);
+        sender.setPassword(PASSWORD);
+        Properties properties = new Properties();
+        properties.put("mail." + protocol + ".auth", "true");
+        if (tls) {
+            // GreenMail's self-signed certificate
+            properties.put("mail.smtps.ssl.trust", "*");
+            properties.put("mail.smtps.ssl.checkserveridentity", "false");
+        }
+        sender.setJavaMailProperties(properties);
+
+        // About the size of a claim status email
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><body><table>");
+        for (int i = 0; i < 40; i++) {
+            html.append("<tr><th>Field ").append(i).append("</th><td>Value for row ").append(i).append("</td></tr>");
+        }
+        htmlBody = html.append("</table></body></html>").toString();
+    }
+
+    // GreenMail keeps every message in memory
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (sender instanceof PooledMailSender pool) {
+            System.out.println("\n" + pool.stats());
+            pool.close();
+        }
+        greenMail.stop();
+    }
+
+    @Benchmark
+    public void sendEmail() throws Exception {
+        MimeMessage message = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom("noreply@insurai.local");
+        helper.setTo("employee@localhost");
+        helper.setSubject("InsurAi: Claim #" + sequence.incrementAndGet() + " Approved");
+        helper.setText(htmlBody, true);
+        sender.send(message);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(MailTransportBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,54 @@
+package com.insurai.insurai_backend.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Throughput gate for the pooled mail transport (run by {@code mvn verify}, or alone with
+ * {@code mvn -Pbenchmark test}).
+ *
+ * Sends over SMTPS to GreenMail with and without connection reuse, and fails when the
+ * pooled sender is not at least {@code mail.benchmark.min-speedup} times faster.
+ */
+@Tag("benchmark")
+class MailTransportThroughputGateTest {
+
+    @Test
+    void pooledTransportOutperformsConnectionPerMessage() throws Exception {
+        double minSpeedup = Double.parseDouble(System.getProperty("mail.benchmark.min-speedup", "2"));
+
+        Options options = new OptionsBuilder()
+                .include(MailTransportBenchmark.class.getName() + ".sendEmail")
+                .param("protocol", "smtps")
+                .warmupIterations(2)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.seconds(2))
+                .forks(1)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        Map<String, Double> opsByMode = new TreeMap<>();
+        for (RunResult result : results) {
+            opsByMode.put(result.getParams().getParam("pooled"), result.getPrimaryResult().getScore());
+        }
+        double perMessage = opsByMode.get("false");
+        double pooled = opsByMode.get("true");
+
+        assertTrue(pooled >= perMessage * minSpeedup, String.format(
+                "Pooled SMTP sends %.0f msg/s vs %.0f msg/s with a connection per message (%.1fx, need %.1fx)",
+                pooled, perMessage, pooled / perMessage, minSpeedup));
+    }
+}
@@ -0,0 +1,182 @@
+package com.insurai.insurai_backend.service.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.insurai.insurai_backend.model.Claim;
+import com.insurai.insurai_backend.model.Hr;
+import com.insurai.insurai_backend.repository.ClaimRepository;
+
+class ClaimSearchIndexTest {
+
+    private final ClaimRepository claimRepository = mock(ClaimRepository.class);
+    private final ClaimSearchIndex index = new ClaimSearchIndex(claimRepository, 2);
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    // ------------------ Ranking ------------------
+
+    @Test
+    void rankingFavoursHigherTermFrequency() {
+        index.index(claim(1, "Roof leak", "water damage in the attic", "Pending", null));
+        index.index(claim(2, "Water pipe", "water water everywhere", "Pending", null));
+        index.index(claim(3, "Car accident", "rear bumper damage", "Pending", null));
+
+        ClaimSearchIndex.SearchResult result = index.search("water", null, null, 10);
+
+        assertEquals(List.of(2L, 1L), ids(result));
+        assertEquals(2, result.totalMatches());
+        assertTrue(result.hits().get(0).score() > result.hits().get(1).score());
+    }
+
+    @Test
+    void allTermsMustMatch() {
+        index.index(claim(1, "Roof leak", "water damage in the attic", "Pending", null));
+        index.index(claim(2, "Water pipe", "burst pipe flooded the kitchen", "Pending", null));
+        index.index(claim(3, "Pipe repair", "plumber invoice", "Pending", null));
+
+        assertEquals(List.of(2L), ids(index.search("water pipe", null, null, 10)));
+        assertEquals(List.of(), ids(index.search("water plumber", null, null, 10)));
+    }
+
+    @Test
+    void prefixTermMatchesEveryExpansionOnce() {
+        index.index(claim(1, "Flood", "damaged floor and damage to walls", "Pending", null));
+        index.index(claim(2, "Theft", "stolen laptop", "Pending", null));
+        index.index(claim(3, "Storm", "hail damage", "Pending", null));
+
+        ClaimSearchIndex.SearchResult result = index.search("dam*", null, null, 10);
+
+        assertEquals(2, result.totalMatches());
+        assertEquals(2, result.hits().size());
+        assertTrue(ids(result).containsAll(List.of(1L, 3L)));
+        assertEquals(List.of(3L), ids(index.search("hail dam*", null, null, 10)));
+    }
+
+    @Test
+    void filtersAndLimitApplyAfterMatching() {
+        index.index(claim(1, "Water damage", "kitchen", "Pending", 7L));
+        index.index(claim(2, "Water damage", "bathroom", "Approved", 7L));
+        index.index(claim(3, "Water damage", "garage", "Pending", 8L));
+
+        assertEquals(List.of(1L), ids(index.search("water", "pending", 7L, 10)));
+
+        ClaimSearchIndex.SearchResult limited = index.search("water", null, null, 2);
+        assertEquals(2, limited.hits().size());
+        assertEquals(3, limited.totalMatches());
+    }
+
+    // ------------------ Updates ------------------
+
+    @Test
+    void reindexedClaimTombstonesItsPreviousVersion() {
+        index.index(claim(1, "Water damage", "kitchen ceiling", "Pending", null));
+        index.index(claim(2, "Stolen bike", "outside the office", "Pending", null));
+
+        index.index(claim(1, "Fire damage", "kitchen ceiling", "Approved", null));
+
+        assertEquals(List.of(), ids(index.search("water", null, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("fire", null, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("kitchen", null, null, 10)));
+        assertEquals(List.of(), ids(index.search("kitchen", "Pending", null, 10)));
+
+        ClaimSearchIndex.IndexStats stats = index.stats();
+        assertEquals(2, stats.documents());
+        assertEquals(1, stats.staleDocuments());
+    }
+
+    @Test
+    void reindexReadsStoredRows() {
+        index.index(claim(1, "Water damage", "kitchen", "Pending", null));
+        when(claimRepository.findSearchRowsByIds(List.of(1L))).thenReturn(rows(
+                new Object[] { 1L, "Water damage", "kitchen", null, "Reused document", "Pending", null }));
+
+        index.reindex(List.of(1L));
+
+        assertEquals(List.of(1L), ids(index.search("reused", null, null, 10)));
+        assertEquals(1, index.stats().staleDocuments());
+    }
+
+    // ------------------ Rebuild ------------------
+
+    @Test
+    void rebuiltSegmentsKeepClaimIdsAfterAppend() throws Exception {
+        // Far apart ids give two id-range segments, so the second is appended with shifted ordinals
+        List<Object[]> stored = rows(
+                new Object[] { 1L, "Water damage", "kitchen", null, null, "Pending", 5L },
+                new Object[] { 2L, "Stolen bike", "office", null, null, "Pending", 5L },
+                new Object[] { 9000L, "Water leak", "bathroom", null, null, "Pending", 6L },
+                new Object[] { 9001L, "Hail storm", "car roof", null, null, "Rejected", 6L });
+        when(claimRepository.findMaxId()).thenReturn(9001L);
+        when(claimRepository.findSearchBatch(anyLong(), anyLong(), any(Pageable.class))).thenAnswer(call -> {
+            long afterId = call.getArgument(0);
+            long lastId = call.getArgument(1);
+            List<Object[]> batch = new ArrayList<>();
+            for (Object[] row : stored) {
+                long id = (Long) row[0];
+                if (id > afterId && id <= lastId) batch.add(row);
+            }
+            return batch;
+        });
+
+        index.rebuild();
+        awaitReady();
+
+        assertEquals(4, index.stats().documents());
+        assertTrue(ids(index.search("water", null, null, 10)).containsAll(List.of(1L, 9000L)));
+        assertEquals(List.of(9000L), ids(index.search("water", null, 6L, 10)));
+        assertEquals(List.of(9001L), ids(index.search("hail", "Rejected", null, 10)));
+
+        // A claim from the appended segment is replaced in place of its shifted ordinal
+        index.index(claim(9000, "Pipe burst", "bathroom", "Approved", 6L));
+        assertEquals(List.of(1L), ids(index.search("water", null, null, 10)));
+        assertEquals(List.of(9000L), ids(index.search("pipe", null, null, 10)));
+        assertEquals(1, index.stats().staleDocuments());
+    }
+
+    // ------------------ Helpers ------------------
+
+    private void awaitReady() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!index.stats().ready() || index.stats().rebuilding()) {
+            assertTrue(System.currentTimeMillis() < deadline, "index build did not finish");
+            Thread.sleep(10);
+        }
+    }
+
+    private static Claim claim(long id, String title, String description, String status, Long hrId) {
+        Claim claim = new Claim();
+        claim.setId(id);
+        claim.setTitle(title);
+        claim.setDescription(description);
+        claim.setStatus(status);
+        if (hrId != null) {
+            Hr hr = new Hr();
+            hr.setId(hrId);
+            claim.setAssignedHr(hr);
+        }
+        return claim;
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static List<Long> ids(ClaimSearchIndex.SearchResult result) {
+        return result.hits().stream().map(ClaimSearchIndex.Hit::claimId).toList();
+    }
+}